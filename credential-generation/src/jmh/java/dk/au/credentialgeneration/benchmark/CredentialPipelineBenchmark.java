@@ -0,0 +1,147 @@
+package dk.au.credentialgeneration.benchmark;
+
+import dk.au.credentialgeneration.CredentialGenerationApplication;
+import dk.au.credentialgeneration.controller.CredentialController;
+import dk.au.credentialgeneration.dto.BatchCredentialRequest;
+import dk.au.credentialgeneration.dto.BatchCredentialResult;
+import dk.au.credentialgeneration.dto.CredentialRequest;
+import dk.au.credentialgeneration.dto.CredentialResponse;
+import dk.au.credentialgeneration.dto.PasswordVerificationRequest;
+import dk.au.credentialgeneration.service.CredentialSnapshotCache;
+import dk.au.credentialgeneration.service.UsernameAllocator;
+import dk.au.credentialgeneration.utils.PasswordHasher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Full generate and verify pipelines through {@link CredentialController}, including the
+ * WebClient round trips, against {@link StubCustomerService}. BCrypt runs at strength 4 so the
+ * numbers show the cost around hashing; {@link PasswordHasherBenchmark} covers hashing itself.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(jvmArgsAppend = StubCustomerService.NODELAY)
+public class CredentialPipelineBenchmark {
+    private static final String PASSWORD = "bapetiku";
+    private static final int BATCH_SIZE = 100;
+
+    private StubCustomerService stub;
+    private ConfigurableApplicationContext context;
+    private CredentialController controller;
+    private CredentialSnapshotCache credentialSnapshotCache;
+    private CredentialRequest generateRequest;
+    private PasswordVerificationRequest verifyRequest;
+    private BatchCredentialRequest batchRequest;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        stub = StubCustomerService.start(new PasswordHasher(4).hashPassword(PASSWORD));
+        context = startApplication(stub);
+        controller = context.getBean(CredentialController.class);
+        credentialSnapshotCache = context.getBean(CredentialSnapshotCache.class);
+
+        generateRequest = new CredentialRequest();
+        generateRequest.setCustomerId(1L);
+
+        verifyRequest = new PasswordVerificationRequest();
+        verifyRequest.setCustomerId(1L);
+        verifyRequest.setRawPassword(PASSWORD);
+
+        batchRequest = new BatchCredentialRequest();
+        batchRequest.setCustomerIds(new ArrayList<>(LongStream.rangeClosed(1, BATCH_SIZE).boxed().toList()));
+    }
+
+    /**
+     * Starts credential-generation against the stub, with BCrypt at strength 4 and only WARN logging.
+     */
+    static ConfigurableApplicationContext startApplication(StubCustomerService stub) throws InterruptedException {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(CredentialGenerationApplication.class)
+                .web(WebApplicationType.NONE)
+                // Arguments, not builder properties: those are defaults that application.properties overrides
+                .run(
+                        "--customer.service.url=" + stub.baseUrl(),
+                        "--credential.hashing.bcrypt.strength=4",
+                        "--credential.changes.enabled=false",
+                        // logback-spring.xml pins several loggers to INFO or DEBUG, and
+                        // application.properties sets these levels on top of any config
+                        "--logging.config=classpath:logback-benchmark.xml",
+                        "--logging.level.dk.au.credentialgeneration=WARN",
+                        "--logging.level.org.springframework.web.reactive=WARN",
+                        "--logging.level.reactor.netty=WARN");
+        awaitUsernameIndex(context.getBean(UsernameAllocator.class));
+        return context;
+    }
+
+    // Generation answers 503 until the index is seeded, which would be measured as a fast path
+    private static void awaitUsernameIndex(UsernameAllocator usernameAllocator) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (!usernameAllocator.isReady()) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("Username index was not seeded from the stub");
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        stub.close();
+    }
+
+    @Benchmark
+    public ResponseEntity<CredentialResponse> generate() {
+        return controller.generateCredentials(generateRequest).block();
+    }
+
+    @Benchmark
+    public ResponseEntity<Boolean> verifyCached() {
+        return controller.verifyPassword(verifyRequest).block();
+    }
+
+    @Benchmark
+    public ResponseEntity<Boolean> verifyUncached() {
+        credentialSnapshotCache.invalidate(verifyRequest.getCustomerId());
+        return controller.verifyPassword(verifyRequest).block();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public int generateOneByOne() {
+        int generated = 0;
+        for (Long customerId : batchRequest.getCustomerIds()) {
+            CredentialRequest request = new CredentialRequest();
+            request.setCustomerId(customerId);
+            ResponseEntity<CredentialResponse> response = controller.generateCredentials(request).block();
+            if (response != null && response.getStatusCode().is2xxSuccessful()) {
+                generated++;
+            }
+        }
+        return generated;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<BatchCredentialResult> generateBatch() {
+        return controller.generateCredentialsBatch(batchRequest).collectList().block();
+    }
+}
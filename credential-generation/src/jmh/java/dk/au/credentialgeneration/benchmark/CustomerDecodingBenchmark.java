@@ -0,0 +1,47 @@
+package dk.au.credentialgeneration.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dk.au.credentialgeneration.dto.CustomerCredentialView;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding cost of the customer lookup behind every verify: the full customer as an untyped map,
+ * as credential-generation read {@code GET /api/customers/{id}} before, against the typed
+ * credential view. The payloads are customer-service responses for synthetic-data customer 1.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CustomerDecodingBenchmark {
+    static final byte[] FULL_CUSTOMER = ("{\"id\":1,\"name\":\"Noah Kristensen\",\"birth\":\"1967-05-25\","
+            + "\"adress\":\"Birk Centerpark 32\",\"phoneNumber\":\"94364071\",\"credentials\":{"
+            + "\"password\":\"$2a$10$dXJ3SW6G7P50lGmMkkmwe.20cQQubK3.HZWzG3YB1tlRy.fqvM/BG\","
+            + "\"username\":\"noah.kristensen.1\"}}").getBytes(StandardCharsets.UTF_8);
+    static final byte[] CREDENTIAL_VIEW = ("{\"id\":1,\"name\":\"Noah Kristensen\",\"username\":\"noah.kristensen.1\","
+            + "\"passwordHash\":\"$2a$10$dXJ3SW6G7P50lGmMkkmwe.20cQQubK3.HZWzG3YB1tlRy.fqvM/BG\",\"version\":0}")
+            .getBytes(StandardCharsets.UTF_8);
+
+    // Configured like the one WebClient's Jackson decoder uses
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @Benchmark
+    public Map<?, ?> fullCustomerAsMap() throws IOException {
+        return objectMapper.readValue(FULL_CUSTOMER, Map.class);
+    }
+
+    @Benchmark
+    public CustomerCredentialView credentialView() throws IOException {
+        return objectMapper.readValue(CREDENTIAL_VIEW, CustomerCredentialView.class);
+    }
+}
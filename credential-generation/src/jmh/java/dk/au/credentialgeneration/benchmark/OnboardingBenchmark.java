@@ -0,0 +1,100 @@
+package dk.au.credentialgeneration.benchmark;
+
+import dk.au.credentialgeneration.controller.CredentialController;
+import dk.au.credentialgeneration.dto.BatchCredentialRequest;
+import dk.au.credentialgeneration.dto.BatchCredentialResult;
+import dk.au.credentialgeneration.dto.CredentialRequest;
+import dk.au.credentialgeneration.dto.CredentialResponse;
+import dk.au.credentialgeneration.utils.PasswordHasher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Time to create credentials for a whole fair's customers, one {@code generate} call per customer
+ * against a single {@code generate/batch} call, through {@link CredentialController} against
+ * {@link StubCustomerService}. With {@code stubLatencyMillis} every customer-service call takes
+ * that long, as it would over a network and against a database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(jvmArgsAppend = StubCustomerService.NODELAY)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class OnboardingBenchmark {
+    @Param("10000")
+    private int customers;
+
+    @Param({"0", "5"})
+    private long stubLatencyMillis;
+
+    private StubCustomerService stub;
+    private ConfigurableApplicationContext context;
+    private CredentialController controller;
+    private List<Long> customerIds;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        stub = StubCustomerService.start(new PasswordHasher(4).hashPassword("bapetiku"), stubLatencyMillis);
+        context = CredentialPipelineBenchmark.startApplication(stub);
+        controller = context.getBean(CredentialController.class);
+        customerIds = LongStream.rangeClosed(1, customers).boxed().toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        stub.close();
+    }
+
+    @Benchmark
+    public int oneByOne() {
+        int generated = 0;
+        for (Long customerId : customerIds) {
+            CredentialRequest request = new CredentialRequest();
+            request.setCustomerId(customerId);
+            ResponseEntity<CredentialResponse> response = controller.generateCredentials(request).block();
+            if (response != null && response.getStatusCode().is2xxSuccessful()) {
+                generated++;
+            }
+        }
+        return checkAll(generated);
+    }
+
+    @Benchmark
+    public int batch() {
+        BatchCredentialRequest request = new BatchCredentialRequest();
+        request.setCustomerIds(new ArrayList<>(customerIds));
+        List<BatchCredentialResult> results = controller.generateCredentialsBatch(request).collectList().block();
+        long generated = results == null ? 0 : results.stream()
+                .filter(result -> result.getStatus() == BatchCredentialResult.Status.GENERATED)
+                .count();
+        return checkAll((int) generated);
+    }
+
+    // A run that failed part way would be reported as faster, not as an error
+    private int checkAll(int generated) {
+        if (generated != customers) {
+            throw new IllegalStateException("Generated " + generated + " of " + customers + " credentials");
+        }
+        return generated;
+    }
+}
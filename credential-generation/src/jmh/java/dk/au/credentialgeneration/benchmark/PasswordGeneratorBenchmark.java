@@ -0,0 +1,71 @@
+package dk.au.credentialgeneration.benchmark;
+
+import dk.au.credentialgeneration.utils.PasswordGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Username and password generation throughput at 1, 8 and 32 threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PasswordGeneratorBenchmark {
+    private static final int BULK_COUNT = 100;
+
+    private final PasswordGenerator passwordGenerator = new PasswordGenerator();
+
+    @Benchmark
+    @Threads(1)
+    public String password_1thread() {
+        return passwordGenerator.generatePronounceablePassword(8);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String password_8threads() {
+        return passwordGenerator.generatePronounceablePassword(8);
+    }
+
+    @Benchmark
+    @Threads(32)
+    public String password_32threads() {
+        return passwordGenerator.generatePronounceablePassword(8);
+    }
+
+    @Benchmark
+    @Threads(1)
+    @OperationsPerInvocation(BULK_COUNT)
+    public List<String> bulkPasswords_1thread() {
+        return passwordGenerator.generatePronounceablePasswords(BULK_COUNT, 8);
+    }
+
+    @Benchmark
+    @Threads(8)
+    @OperationsPerInvocation(BULK_COUNT)
+    public List<String> bulkPasswords_8threads() {
+        return passwordGenerator.generatePronounceablePasswords(BULK_COUNT, 8);
+    }
+
+    @Benchmark
+    @Threads(32)
+    @OperationsPerInvocation(BULK_COUNT)
+    public List<String> bulkPasswords_32threads() {
+        return passwordGenerator.generatePronounceablePasswords(BULK_COUNT, 8);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String username_1thread() {
+        return passwordGenerator.generateUsername("Max Mustermann");
+    }
+}
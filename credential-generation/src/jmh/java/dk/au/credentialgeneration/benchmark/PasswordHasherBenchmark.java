@@ -0,0 +1,45 @@
+package dk.au.credentialgeneration.benchmark;
+
+import dk.au.credentialgeneration.utils.PasswordHasher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BCrypt hashing and verification latency at several strengths.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PasswordHasherBenchmark {
+    private static final String PASSWORD = "bapetiku";
+
+    @Param({"8", "10", "12"})
+    private int strength;
+
+    private PasswordHasher passwordHasher;
+    private String storedHash;
+
+    @Setup
+    public void setUp() {
+        passwordHasher = new PasswordHasher(strength);
+        storedHash = passwordHasher.hashPassword(PASSWORD);
+    }
+
+    @Benchmark
+    public String hash() {
+        return passwordHasher.hashPassword(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean verify() {
+        return passwordHasher.verifyPassword(PASSWORD, storedHash);
+    }
+}
@@ -0,0 +1,118 @@
+package dk.au.credentialgeneration.benchmark;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Minimal in-process stand-in for customer-service, so benchmarks measure credential-generation
+ * and its HTTP client instead of a database. Every customer ID exists and carries the same
+ * credentials.
+ */
+final class StubCustomerService implements AutoCloseable {
+    /**
+     * JVM flag for benchmarks using the stub. Without it the JDK HTTP server leaves Nagle on and
+     * every round trip waits for a delayed ACK, which dominates the measurement.
+     */
+    static final String NODELAY = "-Dsun.net.httpserver.nodelay=true";
+
+    private static final String CUSTOMER_JSON = "{\"id\":%s,\"name\":\"Max Mustermann\",\"birth\":\"1990-05-15\","
+            + "\"adress\":\"Birk Centerpark 120\",\"phoneNumber\":\"1234567890\","
+            + "\"credentials\":{\"username\":\"max.mustermann\",\"password\":\"%s\"}}";
+    private static final String CREDENTIAL_VIEW_JSON = "{\"id\":%s,\"name\":\"Max Mustermann\","
+            + "\"username\":\"max.mustermann\",\"passwordHash\":\"%s\"}";
+
+    private static final String BATCH_RESULT_JSON = "{\"customerId\":%s,\"status\":\"UPDATED\",\"version\":1}";
+    private static final Pattern CUSTOMER_ID = Pattern.compile("\"customerId\":(\\d+)");
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final String storedHash;
+    private final long latencyMillis;
+
+    private StubCustomerService(String storedHash, long latencyMillis) throws IOException {
+        this.storedHash = storedHash;
+        this.latencyMillis = latencyMillis;
+        // Enough threads that sleeping out the latency never queues a batch's concurrent calls
+        this.executor = Executors.newFixedThreadPool(32);
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 512);
+        this.server.createContext("/api/customers", this::handle);
+        this.server.setExecutor(executor);
+        this.server.start();
+    }
+
+    static StubCustomerService start(String storedHash) throws IOException {
+        return start(storedHash, 0);
+    }
+
+    /**
+     * Starts a stub that answers every call after {@code latencyMillis}, standing in for the
+     * network and database time of the real service.
+     */
+    static StubCustomerService start(String storedHash, long latencyMillis) throws IOException {
+        return new StubCustomerService(storedHash, latencyMillis);
+    }
+
+    String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String body;
+        try (InputStream in = exchange.getRequestBody()) {
+            body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        if (latencyMillis > 0) {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        String[] segments = exchange.getRequestURI().getPath().split("/");
+        // ["", "api", "customers", "stream" | "usernames" | "credentials" | "{id}", "credentials" | "credential-view"]
+        if (segments.length == 3 || (segments.length == 4 && segments[3].equals("stream"))) {
+            respond(exchange, 200, "[]");
+        } else if (segments.length == 4 && segments[3].equals("usernames")) {
+            // No usernames taken yet; the offset lets the username index report itself seeded
+            exchange.getResponseHeaders().set("X-Change-Offset", "0");
+            respond(exchange, 200, "[]");
+        } else if (segments.length == 4 && segments[3].equals("credentials")) {
+            String results = CUSTOMER_ID.matcher(body).results()
+                    .map(match -> String.format(BATCH_RESULT_JSON, match.group(1)))
+                    .collect(Collectors.joining(",", "[", "]"));
+            respond(exchange, 200, results);
+        } else if (segments.length == 5 && segments[4].equals("credential-view")) {
+            respond(exchange, 200, String.format(CREDENTIAL_VIEW_JSON, segments[3], storedHash));
+        } else if (segments.length >= 4) {
+            respond(exchange, 200, String.format(CUSTOMER_JSON, segments[3], storedHash));
+        } else {
+            respond(exchange, 404, "");
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,20 @@
+package dk.au.credentialgeneration.config;
+
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.util.function.Predicate;
+
+/**
+ * Decides which customer-service errors count against the circuit breaker. Client errors such
+ * as 404 for an unknown customer are answers, not failures; 5xx responses, timeouts and
+ * connection errors are.
+ */
+public class CustomerServiceFailurePredicate implements Predicate<Throwable> {
+    @Override
+    public boolean test(Throwable throwable) {
+        if (throwable instanceof WebClientResponseException responseException) {
+            return responseException.getStatusCode().is5xxServerError();
+        }
+        return true;
+    }
+}
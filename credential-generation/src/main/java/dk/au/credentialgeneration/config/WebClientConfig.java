@@ -1,20 +1,78 @@
 package dk.au.credentialgeneration.config;
 
+import io.netty.channel.ChannelOption;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
 
 @Configuration
+@Slf4j
 public class WebClientConfig {
-    
+
+    /**
+     * Connection pool towards customer-service. Pool gauges are published through Micrometer
+     * as {@code reactor.netty.connection.provider.*} meters.
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider customerServiceConnectionProvider(
+            @Value("${customer.service.client.max-connections:200}") int maxConnections,
+            @Value("${customer.service.client.pending-acquire-max-count:1000}") int pendingAcquireMaxCount,
+            @Value("${customer.service.client.pending-acquire-timeout:2s}") Duration pendingAcquireTimeout,
+            @Value("${customer.service.client.max-idle-time:30s}") Duration maxIdleTime,
+            @Value("${customer.service.client.max-life-time:5m}") Duration maxLifeTime,
+            @Value("${customer.service.client.evict-in-background:30s}") Duration evictInBackground) {
+        log.info("Creating customer-service connection pool - MaxConnections: {}, PendingAcquireMaxCount: {}",
+                maxConnections, pendingAcquireMaxCount);
+        return ConnectionProvider.builder("customer-service")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                .maxIdleTime(maxIdleTime)
+                .maxLifeTime(maxLifeTime)
+                .evictInBackground(evictInBackground)
+                .metrics(true)
+                .build();
+    }
+
+    /**
+     * Built from Spring Boot's {@link WebClient.Builder} so every outbound call is timed as
+     * {@code http.client.requests}, tagged with the URI template. The caller's request ID is
+     * forwarded as {@value RequestIdFilter#HEADER}.
+     */
     @Bean
-    public WebClient webClient() {
-        return WebClient.builder()
-                .baseUrl("http://customer-service:8080")
-                .filter((request, next) -> {
-                    System.out.println("Making request to: " + request.url());
-                    return next.exchange(request);
-                })
+    public WebClient webClient(
+            WebClient.Builder builder,
+            ConnectionProvider customerServiceConnectionProvider,
+            @Value("${customer.service.url:http://customer-service:8080}") String customerServiceUrl,
+            @Value("${customer.service.client.connect-timeout:2s}") Duration connectTimeout,
+            @Value("${customer.service.client.response-timeout:5s}") Duration responseTimeout) {
+        HttpClient httpClient = HttpClient.create(customerServiceConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .responseTimeout(responseTimeout)
+                .keepAlive(true);
+
+        return builder
+                .baseUrl(customerServiceUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .filter(propagateRequestId())
                 .build();
     }
-} 
\ No newline at end of file
+
+    private static ExchangeFilterFunction propagateRequestId() {
+        return (request, next) -> Mono.deferContextual(context -> next.exchange(
+                context.<String>getOrEmpty(RequestIdFilter.MDC_KEY)
+                        .map(requestId -> ClientRequest.from(request).header(RequestIdFilter.HEADER, requestId).build())
+                        .orElse(request)));
+    }
+}
@@ -1,25 +1,37 @@
 package dk.au.credentialgeneration.controller;
 
+import dk.au.credentialgeneration.dto.BatchCredentialRequest;
+import dk.au.credentialgeneration.dto.BatchCredentialResult;
 import dk.au.credentialgeneration.dto.CredentialRequest;
 import dk.au.credentialgeneration.dto.CredentialResponse;
-import dk.au.credentialgeneration.dto.CredentialUpdateRequest;
-import dk.au.credentialgeneration.dto.CustomerDTO;
+import dk.au.credentialgeneration.dto.CredentialSnapshot;
 import dk.au.credentialgeneration.dto.PasswordVerificationRequest;
+import dk.au.credentialgeneration.service.BatchCredentialService;
+import dk.au.credentialgeneration.service.CredentialSnapshotCache;
+import dk.au.credentialgeneration.service.CustomerServiceClient;
+import dk.au.credentialgeneration.service.HashingPoolSaturatedException;
+import dk.au.credentialgeneration.service.HashingWorkerPool;
+import dk.au.credentialgeneration.service.PasswordRehashService;
+import dk.au.credentialgeneration.service.UsernameAllocator;
+import dk.au.credentialgeneration.service.UsernameIndexNotReadyException;
 import dk.au.credentialgeneration.utils.PasswordGenerator;
 import dk.au.credentialgeneration.utils.PasswordHasher;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/credentials")
@@ -29,124 +41,167 @@ import java.util.UUID;
 public class CredentialController {
     private final PasswordGenerator passwordGenerator;
     private final PasswordHasher passwordHasher;
-    private final WebClient webClient;
+    private final HashingWorkerPool hashingWorkerPool;
+    private final CustomerServiceClient customerServiceClient;
+    private final BatchCredentialService batchCredentialService;
+    private final CredentialSnapshotCache credentialSnapshotCache;
+    private final PasswordRehashService passwordRehashService;
+    private final UsernameAllocator usernameAllocator;
+
+    @Value("${credential.batch.max-size:10000}")
+    private int maxBatchSize;
 
     @PostMapping("/generate")
     @Operation(summary = "Generate credentials for a customer", description = "Generates a username based on the customer's name and a pronounceable password")
     public Mono<ResponseEntity<CredentialResponse>> generateCredentials(@RequestBody CredentialRequest request) {
-        String requestId = UUID.randomUUID().toString().substring(0, 8);
-        
-        log.info("Starting credential generation request - RequestId: {}, CustomerId: {}", 
-                requestId, request.getCustomerId());
+        log.info("Starting credential generation request - CustomerId: {}", request.getCustomerId());
         
         // First, get the customer's name from customer-service
-        return webClient.get()
-                .uri("/api/customers/{id}", request.getCustomerId())
-                .retrieve()
-                .bodyToMono(Map.class)
-                .doOnNext(response -> log.debug("Customer service response received - RequestId: {}, Response: {}", 
-                        requestId, response))
-                .doOnError(error -> log.error("Failed to retrieve customer data - RequestId: {}, CustomerId: {}, Error: {}", 
-                        requestId, request.getCustomerId(), error.getMessage(), error))
-                .flatMap(customerData -> {
-                    Map<String, Object> customer = (Map<String, Object>) customerData;
-                    String customerName = (String) customer.get("name");
+        return customerServiceClient.fetchCredentialView(request.getCustomerId())
+                .doOnNext(customer -> log.debug("Customer service response received - CustomerId: {}", customer.getId()))
+                .doOnError(error -> log.error("Failed to retrieve customer data - CustomerId: {}, Error: {}", 
+                        request.getCustomerId(), error.getMessage(), error))
+                .flatMap(customer -> {
+                    String customerName = customer.getName();
+                    String currentUsername = customer.getUsername();
                     
-                    log.info("Customer data retrieved successfully - RequestId: {}, CustomerName: {}", 
-                            requestId, customerName);
+                    log.info("Customer data retrieved successfully - CustomerName: {}", customerName);
                     
                     // Generate credentials using the customer's name
-                    String username = passwordGenerator.generateUsername(customerName);
+                    String username = usernameAllocator.allocate(
+                            passwordGenerator.generateUsername(customerName), currentUsername);
                     String password = passwordGenerator.generatePronounceablePassword(8);
-                    String hashedPassword = passwordHasher.hashPassword(password);
-
-                    log.info("Credentials generated - RequestId: {}, Username: {}, PasswordLength: {}", 
-                            requestId, username, password.length());
-                    log.debug("Generated password hash - RequestId: {}, HashPrefix: {}", 
-                            requestId, hashedPassword.substring(0, Math.min(10, hashedPassword.length())) + "...");
-
-                    // Create credentials map
-                    Map<String, String> credentials = new HashMap<>();
-                    credentials.put("username", username);
-                    credentials.put("password", hashedPassword);
 
-                    // Create proper request object for customer-service
-                    CredentialUpdateRequest updateRequest = new CredentialUpdateRequest(credentials);
-
-                    log.debug("Sending credential update request - RequestId: {}, UpdateRequest: {}", 
-                            requestId, updateRequest);
-
-                    // Update the customer's credentials
-                    return webClient.patch()
-                            .uri("/api/customers/{id}/credentials", request.getCustomerId())
-                            .contentType(MediaType.APPLICATION_JSON)
-                            .bodyValue(updateRequest)
-                            .retrieve()
-                            .bodyToMono(CustomerDTO.class)
-                            .doOnNext(response -> log.info("Credentials updated successfully - RequestId: {}, Response: {}", 
-                                    requestId, response))
-                            .doOnError(error -> log.error("Failed to update customer credentials - RequestId: {}, CustomerId: {}, Error: {}", 
-                                    requestId, request.getCustomerId(), error.getMessage(), error))
-                            .map(response -> {
-                                log.info("Credential generation completed successfully - RequestId: {}, CustomerId: {}", 
-                                        requestId, request.getCustomerId());
-                                CredentialResponse credentialResponse = new CredentialResponse();
-                                credentialResponse.setUsername(username);
-                                credentialResponse.setPassword(password);
-                                credentialResponse.setHashedPassword(hashedPassword);
-                                return ResponseEntity.ok(credentialResponse);
+                    // BCrypt runs on the hashing pool, never on the event loop
+                    return hashingWorkerPool.submit("hash", () -> passwordHasher.hashPassword(password))
+                            .flatMap(hashedPassword -> updateCredentials(request.getCustomerId(),
+                                    username, password, hashedPassword))
+                            .doOnError(error -> {
+                                if (!username.equals(currentUsername)) {
+                                    usernameAllocator.release(username);
+                                }
                             });
                 })
+                .onErrorResume(HashingPoolSaturatedException.class, e -> {
+                    log.warn("Credential generation rejected, hashing pool saturated - CustomerId: {}",
+                            request.getCustomerId());
+                    return Mono.just(ResponseEntity.<CredentialResponse>status(HttpStatus.SERVICE_UNAVAILABLE).build());
+                })
+                .onErrorResume(UsernameIndexNotReadyException.class, e -> {
+                    log.warn("Credential generation rejected, username index not seeded yet - CustomerId: {}",
+                            request.getCustomerId());
+                    return Mono.just(ResponseEntity.<CredentialResponse>status(HttpStatus.SERVICE_UNAVAILABLE).build());
+                })
+                .onErrorResume(CallNotPermittedException.class, e -> {
+                    log.warn("Credential generation rejected, customer-service circuit open - CustomerId: {}",
+                            request.getCustomerId());
+                    return Mono.just(ResponseEntity.<CredentialResponse>status(HttpStatus.SERVICE_UNAVAILABLE).build());
+                })
                 .onErrorResume(e -> {
-                    log.error("Credential generation failed - RequestId: {}, CustomerId: {}, Error: {}", 
-                            requestId, request.getCustomerId(), e.getMessage(), e);
+                    log.error("Credential generation failed - CustomerId: {}, Error: {}", 
+                            request.getCustomerId(), e.getMessage(), e);
                     return Mono.just(ResponseEntity.<CredentialResponse>status(500).build());
                 });
     }
 
+    @PostMapping(value = "/generate/batch", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Generate credentials for many customers", description = "Generates credentials for every listed customer and streams one NDJSON result per customer as it completes")
+    public Flux<BatchCredentialResult> generateCredentialsBatch(@RequestBody BatchCredentialRequest request) {
+        if (request.getCustomerIds() == null || request.getCustomerIds().isEmpty()) {
+            log.warn("Empty batch credential request");
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "customerIds must not be empty");
+        }
+        if (request.getCustomerIds().size() > maxBatchSize) {
+            log.warn("Batch credential request too large - Customers: {}, Max: {}",
+                    request.getCustomerIds().size(), maxBatchSize);
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                    "At most " + maxBatchSize + " customers per batch");
+        }
+        if (!usernameAllocator.isReady()) {
+            log.warn("Batch credential request rejected, username index not seeded yet");
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Username index not ready");
+        }
+
+        return batchCredentialService.generate(request.getCustomerIds());
+    }
+
     @PostMapping("/verify")
     @Operation(summary = "Verify a password", description = "Verifies if a raw password matches the stored password for a customer")
     public Mono<ResponseEntity<Boolean>> verifyPassword(@RequestBody PasswordVerificationRequest request) {
-        String requestId = UUID.randomUUID().toString().substring(0, 8);
-        
-        log.info("Starting password verification - RequestId: {}, CustomerId: {}", 
-                requestId, request.getCustomerId());
+        log.info("Starting password verification - CustomerId: {}", request.getCustomerId());
         
-        // First, get the customer's credentials from customer-service
-        return webClient.get()
-                .uri("/api/customers/{id}", request.getCustomerId())
-                .retrieve()
-                .bodyToMono(Map.class)
-                .doOnNext(response -> log.debug("Customer data retrieved for verification - RequestId: {}", requestId))
-                .doOnError(error -> log.error("Failed to retrieve customer for password verification - RequestId: {}, CustomerId: {}, Error: {}", 
-                        requestId, request.getCustomerId(), error.getMessage(), error))
-                .map(customerData -> {
-                    Map<String, Object> customer = (Map<String, Object>) customerData;
-                    Map<String, String> credentials = (Map<String, String>) customer.get("credentials");
-                    
-                    if (credentials == null || !credentials.containsKey("password")) {
-                        log.warn("No credentials found for customer - RequestId: {}, CustomerId: {}", 
-                                requestId, request.getCustomerId());
-                        return ResponseEntity.ok(false);
-                    }
+        // Stored hashes come from the local snapshot cache, loading from customer-service on a miss
+        return credentialSnapshotCache.get(request.getCustomerId())
+                .doOnError(error -> log.error("Failed to retrieve customer for password verification - CustomerId: {}, Error: {}", 
+                        request.getCustomerId(), error.getMessage(), error))
+                .flatMap(snapshot -> {
+                    String storedHashedPassword = snapshot.getPasswordHash();
+                    return hashingWorkerPool.submit("verify",
+                                    () -> passwordHasher.verifyPassword(request.getRawPassword(), storedHashedPassword))
+                            .map(isValid -> {
+                                log.info("Password verification completed - CustomerId: {}, IsValid: {}", 
+                                        request.getCustomerId(), isValid);
 
-                    String storedHashedPassword = credentials.get("password");
-                    boolean isValid = passwordHasher.verifyPassword(request.getRawPassword(), storedHashedPassword);
-                    
-                    log.info("Password verification completed - RequestId: {}, CustomerId: {}, IsValid: {}", 
-                            requestId, request.getCustomerId(), isValid);
-                    
-                    if (!isValid) {
-                        log.warn("Invalid password attempt - RequestId: {}, CustomerId: {}", 
-                                requestId, request.getCustomerId());
-                    }
-                    
-                    return ResponseEntity.ok(isValid);
+                                if (!isValid) {
+                                    log.warn("Invalid password attempt - CustomerId: {}", request.getCustomerId());
+                                } else {
+                                    passwordRehashService.rehashIfNeeded(request.getCustomerId(), snapshot,
+                                            request.getRawPassword());
+                                }
+
+                                return ResponseEntity.ok(isValid);
+                            });
+                })
+                .switchIfEmpty(Mono.fromSupplier(() -> {
+                    log.warn("No credentials found for customer - CustomerId: {}", request.getCustomerId());
+                    return ResponseEntity.ok(false);
+                }))
+                .onErrorResume(HashingPoolSaturatedException.class, e -> {
+                    log.warn("Password verification rejected, hashing pool saturated - CustomerId: {}",
+                            request.getCustomerId());
+                    return Mono.just(ResponseEntity.<Boolean>status(HttpStatus.SERVICE_UNAVAILABLE).build());
+                })
+                .onErrorResume(CallNotPermittedException.class, e -> {
+                    log.warn("Password verification rejected, customer-service circuit open - CustomerId: {}",
+                            request.getCustomerId());
+                    return Mono.just(ResponseEntity.<Boolean>status(HttpStatus.SERVICE_UNAVAILABLE).build());
                 })
                 .onErrorResume(error -> {
-                    log.error("Password verification failed - RequestId: {}, CustomerId: {}, Error: {}", 
-                            requestId, request.getCustomerId(), error.getMessage(), error);
+                    log.error("Password verification failed - CustomerId: {}, Error: {}", 
+                            request.getCustomerId(), error.getMessage(), error);
                     return Mono.just(ResponseEntity.ok(false));
                 });
     }
-} 
\ No newline at end of file
+
+    private Mono<ResponseEntity<CredentialResponse>> updateCredentials(Long customerId,
+                                                                       String username, String password,
+                                                                       String hashedPassword) {
+        log.info("Credentials generated - Username: {}, PasswordLength: {}", 
+                username, password.length());
+        log.debug("Generated password hash - HashPrefix: {}", 
+                hashedPassword.substring(0, Math.min(10, hashedPassword.length())) + "...");
+
+        // Create credentials map
+        Map<String, String> credentials = new HashMap<>();
+        credentials.put("username", username);
+        credentials.put("password", hashedPassword);
+
+        log.debug("Sending credential update request - CredentialKeys: {}", 
+                credentials.keySet());
+
+        // Update the customer's credentials
+        return customerServiceClient.updateCredentials(customerId, credentials)
+                .doOnNext(response -> log.info("Credentials updated successfully - CustomerId: {}", customerId))
+                .doOnNext(response -> credentialSnapshotCache.put(customerId, new CredentialSnapshot(username, hashedPassword)))
+                .doOnError(error -> log.error("Failed to update customer credentials - CustomerId: {}, Error: {}", 
+                        customerId, error.getMessage(), error))
+                .map(response -> {
+                    log.info("Credential generation completed successfully - CustomerId: {}", customerId);
+                    CredentialResponse credentialResponse = new CredentialResponse();
+                    credentialResponse.setUsername(username);
+                    credentialResponse.setPassword(password);
+                    credentialResponse.setHashedPassword(hashedPassword);
+                    return ResponseEntity.ok(credentialResponse);
+                });
+    }
+}
@@ -0,0 +1,14 @@
+package dk.au.credentialgeneration.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Schema(description = "Request for generating credentials for many customers")
+public class BatchCredentialRequest {
+    @Schema(description = "IDs of the customers", example = "[1, 2, 3]")
+    private List<Long> customerIds = new ArrayList<>();
+}
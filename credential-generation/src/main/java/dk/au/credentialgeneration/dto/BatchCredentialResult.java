@@ -0,0 +1,39 @@
+package dk.au.credentialgeneration.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Outcome of credential generation for a single customer in a batch")
+public class BatchCredentialResult {
+    public enum Status { GENERATED, NOT_FOUND, FAILED }
+
+    @Schema(description = "ID of the customer", example = "1")
+    private Long customerId;
+
+    @Schema(description = "Outcome for this customer", example = "GENERATED")
+    private Status status;
+
+    @Schema(description = "Generated username", example = "john.doe")
+    private String username;
+
+    @Schema(description = "Generated password", example = "bapetiku")
+    private String password;
+
+    @Schema(description = "Reason the customer could not be processed")
+    private String error;
+
+    public static BatchCredentialResult generated(Long customerId, String username, String password) {
+        return new BatchCredentialResult(customerId, Status.GENERATED, username, password, null);
+    }
+
+    public static BatchCredentialResult failed(Long customerId, Status status, String error) {
+        return new BatchCredentialResult(customerId, status, null, null, error);
+    }
+}
@@ -0,0 +1,18 @@
+package dk.au.credentialgeneration.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * One element of customer-service's {@code PATCH /api/customers/credentials} request.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CredentialBatchUpdateItem {
+    private Long customerId;
+    private Map<String, String> credentials;
+}
@@ -0,0 +1,16 @@
+package dk.au.credentialgeneration.dto;
+
+import lombok.Data;
+
+/**
+ * One element of customer-service's {@code PATCH /api/customers/credentials} response.
+ */
+@Data
+public class CredentialBatchUpdateResult {
+    public enum Status { UPDATED, NOT_FOUND, VERSION_MISMATCH, USERNAME_TAKEN, INVALID }
+
+    private Long customerId;
+    private Status status;
+    private Long version;
+    private String error;
+}
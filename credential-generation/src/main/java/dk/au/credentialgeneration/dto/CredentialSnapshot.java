@@ -0,0 +1,20 @@
+package dk.au.credentialgeneration.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * The part of a customer's credentials that password verification needs. The version is the
+ * customer's version when the snapshot was read, or null when it is not known.
+ */
+@Data
+@AllArgsConstructor
+public class CredentialSnapshot {
+    private String username;
+    private String passwordHash;
+    private Long version;
+
+    public CredentialSnapshot(String username, String passwordHash) {
+        this(username, passwordHash, null);
+    }
+}
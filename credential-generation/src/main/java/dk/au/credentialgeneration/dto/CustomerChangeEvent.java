@@ -0,0 +1,18 @@
+package dk.au.credentialgeneration.dto;
+
+import lombok.Data;
+
+/**
+ * Data of an event on customer-service's {@code GET /api/customers/changes} feed.
+ */
+@Data
+public class CustomerChangeEvent {
+    public static final String CREATED = "CREATED";
+    public static final String CREDENTIALS_UPDATED = "CREDENTIALS_UPDATED";
+    public static final String DELETED = "DELETED";
+
+    private Long offset;
+    private Long customerId;
+    private String type;
+    private Long customerVersion;
+}
@@ -0,0 +1,15 @@
+package dk.au.credentialgeneration.dto;
+
+import lombok.Data;
+
+/**
+ * Response of customer-service's {@code GET /api/customers/{id}/credential-view}.
+ */
+@Data
+public class CustomerCredentialView {
+    private Long id;
+    private String name;
+    private String username;
+    private String passwordHash;
+    private Long version;
+}
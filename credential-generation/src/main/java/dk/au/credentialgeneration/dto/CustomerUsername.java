@@ -0,0 +1,16 @@
+package dk.au.credentialgeneration.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Element of customer-service's {@code GET /api/customers/usernames} listing.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerUsername {
+    private Long id;
+    private String username;
+}
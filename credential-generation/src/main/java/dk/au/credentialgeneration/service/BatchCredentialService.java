@@ -0,0 +1,185 @@
+package dk.au.credentialgeneration.service;
+
+import dk.au.credentialgeneration.dto.BatchCredentialResult;
+import dk.au.credentialgeneration.dto.CredentialBatchUpdateItem;
+import dk.au.credentialgeneration.dto.CredentialBatchUpdateResult;
+import dk.au.credentialgeneration.dto.CredentialSnapshot;
+import dk.au.credentialgeneration.utils.PasswordGenerator;
+import dk.au.credentialgeneration.utils.PasswordHasher;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Generates credentials for many customers in one call.
+ * <p>
+ * Customers are fetched with bounded concurrency, passwords are hashed on the
+ * {@link HashingWorkerPool} and the credential updates are pushed to customer-service in
+ * chunks, one bulk {@code PATCH /api/customers/credentials} call per chunk. Results are
+ * emitted per customer as soon as the chunk holding them completes, so the caller can stream
+ * them instead of waiting for the whole batch.
+ */
+@Service
+@Slf4j
+public class BatchCredentialService {
+    private final CustomerServiceClient customerServiceClient;
+    private final CredentialSnapshotCache credentialSnapshotCache;
+    private final UsernameAllocator usernameAllocator;
+    private final PasswordGenerator passwordGenerator;
+    private final PasswordHasher passwordHasher;
+    private final HashingWorkerPool hashingWorkerPool;
+    private final int fetchConcurrency;
+    private final int chunkSize;
+    private final int updateConcurrency;
+
+    public BatchCredentialService(
+            CustomerServiceClient customerServiceClient,
+            CredentialSnapshotCache credentialSnapshotCache,
+            UsernameAllocator usernameAllocator,
+            PasswordGenerator passwordGenerator,
+            PasswordHasher passwordHasher,
+            HashingWorkerPool hashingWorkerPool,
+            @Value("${credential.batch.fetch-concurrency:16}") int fetchConcurrency,
+            @Value("${credential.batch.chunk-size:100}") int chunkSize,
+            @Value("${credential.batch.update-concurrency:8}") int updateConcurrency) {
+        this.customerServiceClient = customerServiceClient;
+        this.credentialSnapshotCache = credentialSnapshotCache;
+        this.usernameAllocator = usernameAllocator;
+        this.passwordGenerator = passwordGenerator;
+        this.passwordHasher = passwordHasher;
+        this.hashingWorkerPool = hashingWorkerPool;
+        this.fetchConcurrency = fetchConcurrency;
+        this.chunkSize = chunkSize;
+        this.updateConcurrency = updateConcurrency;
+    }
+
+    public Flux<BatchCredentialResult> generate(List<Long> customerIds) {
+        log.info("Starting batch credential generation - Customers: {}", customerIds.size());
+        return Flux.fromIterable(customerIds)
+                .flatMap(this::prepare, fetchConcurrency)
+                .buffer(chunkSize)
+                .flatMapSequential(this::pushChunk, updateConcurrency)
+                .doOnComplete(() -> log.info("Batch credential generation completed"));
+    }
+
+    private Mono<Prepared> prepare(Long customerId) {
+        return customerServiceClient.fetchCredentialView(customerId)
+                .flatMap(customer -> {
+                    String currentUsername = customer.getUsername();
+                    String username = usernameAllocator.allocate(
+                            passwordGenerator.generateUsername(customer.getName()), currentUsername);
+                    String password = passwordGenerator.generatePronounceablePassword(8);
+                    return hashingWorkerPool.submit("hash", () -> passwordHasher.hashPassword(password))
+                            // A batch should wait for the pool rather than fail the customer outright
+                            .retryWhen(Retry.backoff(5, Duration.ofMillis(50))
+                                    .filter(HashingPoolSaturatedException.class::isInstance))
+                            .map(hashedPassword -> Prepared.success(customerId, username, password, hashedPassword,
+                                    !username.equals(currentUsername)))
+                            // The failure below carries no username, so give it back here
+                            .doOnError(error -> {
+                                if (!username.equals(currentUsername)) {
+                                    usernameAllocator.release(username);
+                                }
+                            });
+                })
+                .switchIfEmpty(Mono.fromSupplier(() -> Prepared.failure(BatchCredentialResult.failed(
+                        customerId, BatchCredentialResult.Status.NOT_FOUND, "Customer not found"))))
+                .onErrorResume(error -> {
+                    log.warn("Failed to prepare credentials - CustomerId: {}, Error: {}",
+                            customerId, error.getMessage());
+                    return Mono.just(Prepared.failure(toFailure(customerId, error)));
+                });
+    }
+
+    private Flux<BatchCredentialResult> pushChunk(List<Prepared> chunk) {
+        List<Prepared> ready = chunk.stream().filter(prepared -> prepared.result() == null).toList();
+        if (ready.isEmpty()) {
+            return Flux.fromIterable(chunk).map(Prepared::result);
+        }
+
+        log.debug("Pushing credential chunk - ChunkSize: {}, Updates: {}", chunk.size(), ready.size());
+        List<CredentialBatchUpdateItem> items = ready.stream()
+                .map(prepared -> new CredentialBatchUpdateItem(prepared.customerId(), Map.of(
+                        "username", prepared.username(),
+                        "password", prepared.hashedPassword())))
+                .toList();
+        return customerServiceClient.updateCredentialsBatch(items)
+                .map(updates -> {
+                    Map<Long, CredentialBatchUpdateResult> updatesById = new HashMap<>();
+                    updates.forEach(update -> updatesById.put(update.getCustomerId(), update));
+                    return chunk.stream()
+                            .map(prepared -> prepared.result() != null
+                                    ? prepared.result()
+                                    : toResult(prepared, updatesById.get(prepared.customerId())))
+                            .toList();
+                })
+                .onErrorResume(error -> {
+                    log.warn("Failed to update credential chunk - Updates: {}, Error: {}", ready.size(), error.getMessage());
+                    return Mono.just(chunk.stream()
+                            .map(prepared -> prepared.result() != null
+                                    ? prepared.result()
+                                    : releaseAndFail(prepared, toFailure(prepared.customerId(), error)))
+                            .toList());
+                })
+                .flatMapIterable(results -> results);
+    }
+
+    private BatchCredentialResult toResult(Prepared prepared, CredentialBatchUpdateResult update) {
+        if (update != null && update.getStatus() == CredentialBatchUpdateResult.Status.UPDATED) {
+            credentialSnapshotCache.put(prepared.customerId(),
+                    new CredentialSnapshot(prepared.username(), prepared.hashedPassword()));
+            return BatchCredentialResult.generated(prepared.customerId(), prepared.username(), prepared.password());
+        }
+        if (update != null && update.getStatus() == CredentialBatchUpdateResult.Status.NOT_FOUND) {
+            return releaseAndFail(prepared, BatchCredentialResult.failed(
+                    prepared.customerId(), BatchCredentialResult.Status.NOT_FOUND, "Customer not found"));
+        }
+        String error = update != null ? update.getStatus() + ": " + update.getError() : "No result from customer-service";
+        log.warn("Failed to update credentials - CustomerId: {}, Error: {}", prepared.customerId(), error);
+        return releaseAndFail(prepared, BatchCredentialResult.failed(
+                prepared.customerId(), BatchCredentialResult.Status.FAILED, error));
+    }
+
+    private BatchCredentialResult releaseAndFail(Prepared prepared, BatchCredentialResult failure) {
+        if (prepared.newUsername()) {
+            usernameAllocator.release(prepared.username());
+        }
+        return failure;
+    }
+
+    private BatchCredentialResult toFailure(Long customerId, Throwable error) {
+        if (error instanceof WebClientResponseException.NotFound) {
+            return BatchCredentialResult.failed(customerId, BatchCredentialResult.Status.NOT_FOUND, "Customer not found");
+        }
+        if (error instanceof CallNotPermittedException) {
+            return BatchCredentialResult.failed(customerId, BatchCredentialResult.Status.FAILED,
+                    "customer-service unavailable (circuit open)");
+        }
+        return BatchCredentialResult.failed(customerId, BatchCredentialResult.Status.FAILED, error.getMessage());
+    }
+
+    /**
+     * Either a ready-to-push credential set or an already final result for a customer that failed early.
+     */
+    private record Prepared(Long customerId, String username, String password, String hashedPassword,
+                            boolean newUsername, BatchCredentialResult result) {
+        static Prepared success(Long customerId, String username, String password, String hashedPassword,
+                                boolean newUsername) {
+            return new Prepared(customerId, username, password, hashedPassword, newUsername, null);
+        }
+
+        static Prepared failure(BatchCredentialResult result) {
+            return new Prepared(result.getCustomerId(), null, null, null, false, result);
+        }
+    }
+}
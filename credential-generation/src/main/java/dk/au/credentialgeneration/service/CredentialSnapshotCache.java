@@ -0,0 +1,64 @@
+package dk.au.credentialgeneration.service;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dk.au.credentialgeneration.dto.CredentialSnapshot;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Size-bounded, TTL-evicting cache of customerId to stored credentials.
+ * <p>
+ * Misses load asynchronously from customer-service; concurrent misses for the same customer
+ * share one load. Entries older than the refresh interval are served while a background
+ * refresh runs. Hit ratio, evictions and load latency are published as {@code cache.*} metrics
+ * under the name {@code credentialSnapshots}.
+ */
+@Component
+@Slf4j
+public class CredentialSnapshotCache {
+    private final AsyncLoadingCache<Long, CredentialSnapshot> cache;
+
+    public CredentialSnapshotCache(
+            CustomerServiceClient customerServiceClient,
+            MeterRegistry meterRegistry,
+            @Value("${credential.cache.maximum-size:100000}") long maximumSize,
+            @Value("${credential.cache.expire-after-write:10m}") Duration expireAfterWrite,
+            @Value("${credential.cache.refresh-after-write:1m}") Duration refreshAfterWrite) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .refreshAfterWrite(refreshAfterWrite)
+                .recordStats()
+                // The loader never blocks. The default common pool turns into a new thread per
+                // callback on hosts with two or fewer CPUs, one for every put.
+                .executor(Runnable::run)
+                .buildAsync((customerId, executor) -> customerServiceClient.fetchCredentialSnapshot(customerId).toFuture());
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "credentialSnapshots");
+        log.info("CredentialSnapshotCache initialized - MaximumSize: {}, ExpireAfterWrite: {}, RefreshAfterWrite: {}",
+                maximumSize, expireAfterWrite, refreshAfterWrite);
+    }
+
+    /**
+     * Emits the cached snapshot, loading it on a miss. Completes empty when the customer has
+     * no password. Cancelling the returned Mono does not cancel a load shared with other callers.
+     */
+    public Mono<CredentialSnapshot> get(Long customerId) {
+        return Mono.fromFuture(cache.get(customerId), true);
+    }
+
+    public void put(Long customerId, CredentialSnapshot snapshot) {
+        cache.put(customerId, CompletableFuture.completedFuture(snapshot));
+    }
+
+    public void invalidate(Long customerId) {
+        cache.synchronous().invalidate(customerId);
+    }
+}
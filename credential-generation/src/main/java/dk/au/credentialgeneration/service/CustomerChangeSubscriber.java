@@ -0,0 +1,116 @@
+package dk.au.credentialgeneration.service;
+
+import dk.au.credentialgeneration.dto.CustomerChangeEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+
+/**
+ * Keeps the {@link CredentialSnapshotCache} and the {@link UsernameAllocator} in line with
+ * changes made to customers outside this service, by following customer-service's change feed.
+ * <p>
+ * Credential updates and deletions invalidate the customer's cached snapshot, so the next
+ * verification reloads it instead of using a stale hash until the TTL expires. Created and
+ * updated customers have their current username assigned in the username index, and deleted
+ * ones have it freed.
+ * <p>
+ * On startup the username index is seeded first and the feed is followed from the offset the
+ * seed reported, so no username assigned after the seed is missed. The last seen offset is kept
+ * in memory; after a dropped connection the feed resumes from it. With the feed disabled the
+ * index is still seeded, but only learns about usernames allocated by this service.
+ */
+@Service
+@Slf4j
+public class CustomerChangeSubscriber {
+    private final CustomerServiceClient customerServiceClient;
+    private final CredentialSnapshotCache credentialSnapshotCache;
+    private final UsernameAllocator usernameAllocator;
+    private final boolean enabled;
+    private final Duration idleTimeout;
+
+    private volatile Long offset;
+    private volatile Disposable subscription;
+
+    public CustomerChangeSubscriber(
+            CustomerServiceClient customerServiceClient,
+            CredentialSnapshotCache credentialSnapshotCache,
+            UsernameAllocator usernameAllocator,
+            @Value("${credential.changes.enabled:true}") boolean enabled,
+            @Value("${credential.changes.idle-timeout:60s}") Duration idleTimeout) {
+        this.customerServiceClient = customerServiceClient;
+        this.credentialSnapshotCache = credentialSnapshotCache;
+        this.usernameAllocator = usernameAllocator;
+        this.enabled = enabled;
+        this.idleTimeout = idleTimeout;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        Mono<Long> seeded = usernameAllocator.seed().doOnNext(seedOffset -> offset = seedOffset);
+        if (!enabled) {
+            log.info("Customer change feed subscription disabled");
+            subscription = seeded.subscribe();
+            return;
+        }
+        Flux<CustomerChangeEvent> changes = Flux.defer(() -> customerServiceClient.followChanges(offset, idleTimeout))
+                .doOnSubscribe(sub -> log.info("Following customer-service change feed - Offset: {}", offset))
+                .mapNotNull(ServerSentEvent::data)
+                .concatMap(change -> apply(change).thenReturn(change))
+                .doOnNext(change -> offset = change.getOffset())
+                // The server ends streams after its emitter timeout; reconnect and resume
+                .repeatWhen(completed -> completed.delayElements(Duration.ofSeconds(1)))
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1))
+                        .maxBackoff(Duration.ofSeconds(30))
+                        .transientErrors(true)
+                        .doBeforeRetry(signal -> log.warn("Customer change feed interrupted at offset {}, reconnecting: {}",
+                                offset, signal.failure().getMessage())));
+        subscription = seeded.thenMany(changes).subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        Disposable current = subscription;
+        if (current != null) {
+            current.dispose();
+        }
+    }
+
+    private Mono<Void> apply(CustomerChangeEvent change) {
+        Long customerId = change.getCustomerId();
+        if (CustomerChangeEvent.DELETED.equals(change.getType())) {
+            credentialSnapshotCache.invalidate(customerId);
+            usernameAllocator.unassign(customerId);
+            log.debug("Invalidated credential snapshot - CustomerId: {}, Change: {}", customerId, change.getType());
+            return Mono.empty();
+        }
+        if (CustomerChangeEvent.CREDENTIALS_UPDATED.equals(change.getType())) {
+            credentialSnapshotCache.invalidate(customerId);
+            log.debug("Invalidated credential snapshot - CustomerId: {}, Change: {}", customerId, change.getType());
+        } else if (!CustomerChangeEvent.CREATED.equals(change.getType())) {
+            return Mono.empty();
+        }
+        return customerServiceClient.fetchCredentialView(customerId)
+                .doOnNext(view -> usernameAllocator.assign(customerId, view.getUsername()))
+                .onErrorResume(WebClientResponseException.NotFound.class, e -> {
+                    usernameAllocator.unassign(customerId);
+                    return Mono.empty();
+                })
+                // A missed username surfaces as a conflict from customer-service; do not stall the feed
+                .onErrorResume(error -> {
+                    log.warn("Failed to refresh username - CustomerId: {}, Error: {}", customerId, error.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+}
@@ -0,0 +1,191 @@
+package dk.au.credentialgeneration.service;
+
+import dk.au.credentialgeneration.dto.CredentialBatchUpdateItem;
+import dk.au.credentialgeneration.dto.CredentialBatchUpdateResult;
+import dk.au.credentialgeneration.dto.CredentialSnapshot;
+import dk.au.credentialgeneration.dto.CredentialUpdateRequest;
+import dk.au.credentialgeneration.dto.CustomerChangeEvent;
+import dk.au.credentialgeneration.dto.CustomerCredentialView;
+import dk.au.credentialgeneration.dto.CustomerDTO;
+import dk.au.credentialgeneration.dto.CustomerUsername;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClientRequest;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Thin wrapper around the customer-service endpoints used by credential-generation.
+ * <p>
+ * Every call goes through the {@code customerService} circuit breaker, so while customer-service
+ * is failing callers get an immediate {@link io.github.resilience4j.circuitbreaker.CallNotPermittedException}
+ * instead of waiting out the timeout. Concurrent credential-view lookups for the same customer
+ * are coalesced into a single request.
+ */
+@Component
+@Slf4j
+public class CustomerServiceClient {
+    public static final String CIRCUIT_BREAKER_NAME = "customerService";
+    public static final String CHANGE_OFFSET_HEADER = "X-Change-Offset";
+
+    private final WebClient webClient;
+    private final CircuitBreaker circuitBreaker;
+    private final Counter coalescedCounter;
+    private final ConcurrentMap<Long, Mono<CustomerCredentialView>> inFlightViews = new ConcurrentHashMap<>();
+
+    public CustomerServiceClient(WebClient webClient, CircuitBreakerRegistry circuitBreakerRegistry,
+                                 MeterRegistry meterRegistry) {
+        this.webClient = webClient;
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(CIRCUIT_BREAKER_NAME);
+        this.coalescedCounter = Counter.builder("customer.service.lookups.coalesced")
+                .description("Credential-view lookups served by a request already in flight for the same customer")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Fetches only the ID, name, username and password hash of a customer. A caller arriving
+     * while a lookup for the same customer is in flight shares its result.
+     */
+    public Mono<CustomerCredentialView> fetchCredentialView(Long customerId) {
+        return Mono.defer(() -> {
+            Mono<CustomerCredentialView> existing = inFlightViews.get(customerId);
+            if (existing == null) {
+                Mono<CustomerCredentialView> created = sharedCredentialView(customerId);
+                existing = inFlightViews.putIfAbsent(customerId, created);
+                if (existing == null) {
+                    return created;
+                }
+            }
+            coalescedCounter.increment();
+            log.debug("Coalesced credential-view lookup for customer {}", customerId);
+            return existing;
+        });
+    }
+
+    // Runs with the first caller's context, so its request ID is forwarded; the request is
+    // cancelled once every caller has cancelled
+    private Mono<CustomerCredentialView> sharedCredentialView(Long customerId) {
+        AtomicReference<Mono<CustomerCredentialView>> self = new AtomicReference<>();
+        Mono<CustomerCredentialView> shared = webClient.get()
+                .uri("/api/customers/{id}/credential-view", customerId)
+                .retrieve()
+                .bodyToMono(CustomerCredentialView.class)
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .doFinally(signal -> inFlightViews.remove(customerId, self.get()))
+                .share();
+        self.set(shared);
+        return shared;
+    }
+
+    /**
+     * Streams every taken username from customer-service to {@code action} as the JSON array
+     * arrives, and emits the change-feed offset the listing is at least as new as. Following the
+     * change feed from that offset therefore misses no username assigned after the listing.
+     */
+    public Mono<Long> fetchUsernames(Consumer<CustomerUsername> action) {
+        return webClient.get()
+                .uri("/api/customers/usernames")
+                .exchangeToMono(response -> {
+                    if (!response.statusCode().is2xxSuccessful()) {
+                        return response.createError();
+                    }
+                    String offset = response.headers().asHttpHeaders().getFirst(CHANGE_OFFSET_HEADER);
+                    if (offset == null) {
+                        return Mono.error(new IllegalStateException("Username listing without " + CHANGE_OFFSET_HEADER));
+                    }
+                    return response.bodyToFlux(CustomerUsername.class)
+                            .doOnNext(action)
+                            .then(Mono.just(Long.valueOf(offset)));
+                })
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker));
+    }
+
+    /**
+     * Emits the customer's stored username and password hash, or completes empty when the
+     * customer has no password yet.
+     */
+    public Mono<CredentialSnapshot> fetchCredentialSnapshot(Long customerId) {
+        return fetchCredentialView(customerId)
+                .filter(view -> view.getPasswordHash() != null)
+                .map(view -> new CredentialSnapshot(view.getUsername(), view.getPasswordHash(), view.getVersion()));
+    }
+
+    /**
+     * Follows customer-service's change feed from after {@code offset}, or from now when it is
+     * null. The stream is long-lived, so it bypasses the circuit breaker and uses
+     * {@code idleTimeout} instead of the regular response timeout; the server sends heartbeats
+     * well within it. Heartbeats arrive as events without data.
+     */
+    public Flux<ServerSentEvent<CustomerChangeEvent>> followChanges(Long offset, Duration idleTimeout) {
+        return webClient.get()
+                .uri(uriBuilder -> {
+                    uriBuilder.path("/api/customers/changes");
+                    if (offset != null) {
+                        uriBuilder.queryParam("after", offset);
+                    }
+                    return uriBuilder.build();
+                })
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .httpRequest(request -> request.<HttpClientRequest>getNativeRequest().responseTimeout(idleTimeout))
+                .retrieve()
+                .bodyToFlux(new ParameterizedTypeReference<ServerSentEvent<CustomerChangeEvent>>() {
+                });
+    }
+
+    public Mono<CustomerDTO> updateCredentials(Long customerId, Map<String, String> credentials) {
+        return updateCredentials(customerId, credentials, null);
+    }
+
+    /**
+     * Replaces the customer's credentials only if the customer is still at {@code expectedVersion};
+     * otherwise customer-service answers 412 and the Mono fails with a
+     * {@link WebClientResponseException} carrying that status. A null version updates unconditionally.
+     */
+    public Mono<CustomerDTO> updateCredentials(Long customerId, Map<String, String> credentials, Long expectedVersion) {
+        return webClient.patch()
+                .uri("/api/customers/{id}/credentials", customerId)
+                .headers(headers -> {
+                    if (expectedVersion != null) {
+                        headers.setIfMatch("\"" + expectedVersion + "\"");
+                    }
+                })
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new CredentialUpdateRequest(credentials))
+                .retrieve()
+                .bodyToMono(CustomerDTO.class)
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker));
+    }
+
+    /**
+     * Replaces the credentials of many customers in one call and transaction. The results come
+     * back in item order, one per item.
+     */
+    public Mono<List<CredentialBatchUpdateResult>> updateCredentialsBatch(List<CredentialBatchUpdateItem> items) {
+        return webClient.patch()
+                .uri("/api/customers/credentials")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(items)
+                .retrieve()
+                .bodyToMono(new ParameterizedTypeReference<List<CredentialBatchUpdateResult>>() {
+                })
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker));
+    }
+}
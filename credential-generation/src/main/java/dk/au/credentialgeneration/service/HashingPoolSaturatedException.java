@@ -0,0 +1,12 @@
+package dk.au.credentialgeneration.service;
+
+/**
+ * Thrown when the hashing worker pool cannot accept more work. Mapped to 503 by the controller.
+ */
+public class HashingPoolSaturatedException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public HashingPoolSaturatedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,144 @@
+package dk.au.credentialgeneration.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded worker pool for BCrypt hashing and verification.
+ * <p>
+ * BCrypt is CPU bound and takes tens of milliseconds per call, so it must never run on a
+ * Reactor Netty event-loop thread. Work is queued on a fixed number of threads with a bounded
+ * queue; when the queue is full the task is rejected with {@link HashingPoolSaturatedException}
+ * so callers can answer with 503 instead of piling up latency.
+ */
+@Component
+@Slf4j
+public class HashingWorkerPool {
+    private static final List<String> OPERATIONS = List.of("hash", "verify", "rehash");
+
+    private final ThreadPoolExecutor executor;
+    private final MeterRegistry meterRegistry;
+    private final Timer queueWaitTimer;
+    private final Counter rejectedCounter;
+    private final ConcurrentMap<String, Timer> executionTimers = new ConcurrentHashMap<>();
+
+    public HashingWorkerPool(
+            MeterRegistry meterRegistry,
+            @Value("${credential.hashing.pool.threads:0}") int threads,
+            @Value("${credential.hashing.pool.queue-capacity:256}") int queueCapacity) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.meterRegistry = meterRegistry;
+        this.executor = new ThreadPoolExecutor(
+                poolSize,
+                poolSize,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new HashingThreadFactory(),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.queueWaitTimer = Timer.builder("credential.hashing.queue.wait")
+                .description("Time a hashing task waits in the queue before a worker picks it up")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("credential.hashing.rejected")
+                .description("Hashing tasks rejected because the worker pool was saturated")
+                .register(meterRegistry);
+        OPERATIONS.forEach(this::executionTimer);
+        Gauge.builder("credential.hashing.queue.depth", executor, e -> e.getQueue().size())
+                .description("Hashing tasks waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("credential.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Hashing tasks currently running")
+                .register(meterRegistry);
+
+        log.info("HashingWorkerPool initialized with {} threads and queue capacity {}", poolSize, queueCapacity);
+    }
+
+    /**
+     * Runs the task on the hashing pool. The returned Mono emits on a hashing thread, so
+     * downstream operators should stay cheap or switch scheduler themselves.
+     *
+     * @param operation metric tag describing the work, e.g. "hash" or "verify"
+     */
+    public <T> Mono<T> submit(String operation, Callable<T> task) {
+        return Mono.defer(() -> {
+            long enqueuedAt = System.nanoTime();
+            CompletableFuture<T> result = new CompletableFuture<>();
+            try {
+                executor.execute(() -> run(operation, task, enqueuedAt, result));
+            } catch (RejectedExecutionException e) {
+                rejectedCounter.increment();
+                log.warn("Hashing pool saturated, rejecting {} task - QueueDepth: {}",
+                        operation, executor.getQueue().size());
+                return Mono.error(new HashingPoolSaturatedException(
+                        "Hashing pool is saturated, try again later"));
+            }
+            return Mono.fromFuture(result);
+        });
+    }
+
+    private <T> void run(String operation, Callable<T> task, long enqueuedAt, CompletableFuture<T> result) {
+        long startedAt = System.nanoTime();
+        queueWaitTimer.record(startedAt - enqueuedAt, TimeUnit.NANOSECONDS);
+        T value = null;
+        Throwable failure = null;
+        try {
+            value = task.call();
+        } catch (Throwable t) {
+            failure = t;
+        }
+        // Recorded before completing, so a caller woken by the result already sees the timing
+        executionTimer(operation).record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        if (failure != null) {
+            result.completeExceptionally(failure);
+        } else {
+            result.complete(value);
+        }
+    }
+
+    // Timers for the known operations are built up front, so the hot path is a map lookup
+    private Timer executionTimer(String operation) {
+        return executionTimers.computeIfAbsent(operation, tag -> Timer.builder("credential.hashing.execution")
+                .description("Time spent running a hashing task on a worker")
+                .tag("operation", tag)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        log.info("Shutting down HashingWorkerPool");
+        executor.shutdown();
+    }
+
+    private static final class HashingThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "bcrypt-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
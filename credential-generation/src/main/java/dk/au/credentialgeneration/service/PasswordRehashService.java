@@ -0,0 +1,91 @@
+package dk.au.credentialgeneration.service;
+
+import dk.au.credentialgeneration.dto.CredentialSnapshot;
+import dk.au.credentialgeneration.utils.PasswordHasher;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Re-hashes passwords stored with a BCrypt strength other than the current one.
+ * <p>
+ * Triggered after a successful verification, while the raw password is known. The new hash is
+ * computed on the hashing pool and written back through customer-service's credentials PATCH
+ * without delaying the verification response. At most one re-hash per customer runs at a time.
+ * <p>
+ * The PATCH carries the snapshot's version as {@code If-Match}. If the credentials changed since
+ * the snapshot was read, customer-service answers 412 and the new hash is dropped, so a re-hash
+ * never overwrites newer credentials with the old username and password.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PasswordRehashService {
+    private final PasswordHasher passwordHasher;
+    private final HashingWorkerPool hashingWorkerPool;
+    private final CustomerServiceClient customerServiceClient;
+    private final CredentialSnapshotCache credentialSnapshotCache;
+    private final MeterRegistry meterRegistry;
+
+    private final Set<Long> inProgress = ConcurrentHashMap.newKeySet();
+
+    public void rehashIfNeeded(Long customerId, CredentialSnapshot snapshot, String rawPassword) {
+        if (!passwordHasher.needsRehash(snapshot.getPasswordHash())) {
+            return;
+        }
+        if (snapshot.getVersion() == null) {
+            // Written by this service without a known version; reload it so the next login can re-hash
+            credentialSnapshotCache.invalidate(customerId);
+            return;
+        }
+        if (!inProgress.add(customerId)) {
+            log.debug("Re-hash already in progress for customer {}", customerId);
+            return;
+        }
+
+        log.info("Re-hashing password stored with a different strength - CustomerId: {}, TargetStrength: {}",
+                customerId, passwordHasher.getStrength());
+
+        hashingWorkerPool.submit("rehash", () -> passwordHasher.hashPassword(rawPassword))
+                .flatMap(newHash -> {
+                    Map<String, String> credentials = new HashMap<>();
+                    if (snapshot.getUsername() != null) {
+                        credentials.put("username", snapshot.getUsername());
+                    }
+                    credentials.put("password", newHash);
+                    return customerServiceClient.updateCredentials(customerId, credentials, snapshot.getVersion())
+                            .onErrorResume(PasswordRehashService::isPreconditionFailed, e -> {
+                                meterRegistry.counter("credential.rehash", "outcome", "stale").increment();
+                                log.info("Credentials changed during re-hash, dropping new hash - CustomerId: {}", customerId);
+                                return Mono.empty();
+                            })
+                            // Drop the snapshot either way, the customer has a new version now
+                            .doFinally(signal -> credentialSnapshotCache.invalidate(customerId));
+                })
+                .doFinally(signal -> inProgress.remove(customerId))
+                .subscribe(
+                        updated -> {
+                            meterRegistry.counter("credential.rehash", "outcome", "success").increment();
+                            log.info("Password re-hashed - CustomerId: {}", customerId);
+                        },
+                        error -> {
+                            // Not fatal: the next successful verification tries again
+                            meterRegistry.counter("credential.rehash", "outcome", "failure").increment();
+                            log.warn("Password re-hash failed - CustomerId: {}, Error: {}", customerId, error.getMessage());
+                        });
+    }
+
+    private static boolean isPreconditionFailed(Throwable error) {
+        return error instanceof WebClientResponseException e
+                && e.getStatusCode().value() == HttpStatus.PRECONDITION_FAILED.value();
+    }
+}
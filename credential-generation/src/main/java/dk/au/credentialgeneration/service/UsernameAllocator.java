@@ -0,0 +1,184 @@
+package dk.au.credentialgeneration.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Hands out unique usernames from an in-memory index of the usernames already taken.
+ * <p>
+ * The index is seeded from customer-service's usernames-only listing, retried with backoff until
+ * it succeeds; until then new usernames are refused with {@link UsernameIndexNotReadyException},
+ * since an empty index would hand out names that are already taken. Afterwards it is kept
+ * current by every allocation and by {@link CustomerChangeSubscriber}, which assigns and frees
+ * usernames changed outside this service.
+ * <p>
+ * Each base name keeps its own suffix counter, so a collision costs one counter increment
+ * instead of a round trip per candidate: the first "max.mustermann" keeps the base name, the
+ * next ones become "max.mustermann2", "max.mustermann3" and so on. Released usernames hand
+ * their suffix back, and the lowest released suffix is reused first. A counter is dropped once
+ * none of the usernames it handed out are held any more.
+ */
+@Service
+@Slf4j
+public class UsernameAllocator {
+    private final CustomerServiceClient customerServiceClient;
+    private final Set<String> taken = ConcurrentHashMap.newKeySet();
+    private final ConcurrentMap<String, SuffixCounter> counters = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Allocation> allocations = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, String> usernamesByCustomer = new ConcurrentHashMap<>();
+
+    private volatile boolean ready;
+
+    public UsernameAllocator(CustomerServiceClient customerServiceClient) {
+        this.customerServiceClient = customerServiceClient;
+    }
+
+    public String allocate(String baseUsername) {
+        if (!ready) {
+            throw new UsernameIndexNotReadyException("Username index not seeded from customer-service yet");
+        }
+        while (true) {
+            SuffixCounter counter = counters.computeIfAbsent(baseUsername, SuffixCounter::new);
+            synchronized (counter) {
+                if (counter.dropped) {
+                    // Released its last username in the meantime; a fresh counter takes over
+                    continue;
+                }
+                while (true) {
+                    int n = counter.released.isEmpty() ? counter.next++ : counter.released.pollFirst();
+                    String candidate = n == 0 ? baseUsername : baseUsername + (n + 1);
+                    if (taken.add(candidate)) {
+                        counter.held++;
+                        allocations.put(candidate, new Allocation(counter, n));
+                        log.debug("Allocated username: {}", candidate);
+                        return candidate;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Keeps a customer's current username when there is one, so regenerating credentials only
+     * rotates the password; otherwise allocates a unique username from the base name.
+     */
+    public String allocate(String baseUsername, String currentUsername) {
+        if (currentUsername != null && !currentUsername.isEmpty()) {
+            register(currentUsername);
+            return currentUsername;
+        }
+        return allocate(baseUsername);
+    }
+
+    /**
+     * Marks a username as taken, e.g. one that already exists in customer-service.
+     */
+    public void register(String username) {
+        if (username != null && !username.isEmpty()) {
+            taken.add(username);
+        }
+    }
+
+    /**
+     * Gives a username back when the credentials using it could not be stored.
+     */
+    public void release(String username) {
+        if (username == null) {
+            return;
+        }
+        Allocation allocation = allocations.remove(username);
+        taken.remove(username);
+        if (allocation == null) {
+            return;
+        }
+        SuffixCounter counter = allocation.counter();
+        synchronized (counter) {
+            if (--counter.held == 0) {
+                counter.dropped = true;
+                counters.remove(counter.baseUsername, counter);
+            } else {
+                counter.released.add(allocation.suffix());
+            }
+        }
+    }
+
+    /**
+     * Records that a customer now uses {@code username}, freeing the username it used before.
+     */
+    public void assign(Long customerId, String username) {
+        if (username == null || username.isEmpty()) {
+            unassign(customerId);
+            return;
+        }
+        taken.add(username);
+        String previous = usernamesByCustomer.put(customerId, username);
+        if (previous != null && !previous.equals(username)) {
+            release(previous);
+        }
+    }
+
+    /**
+     * Frees the username of a customer that was deleted or lost its credentials.
+     */
+    public void unassign(Long customerId) {
+        release(usernamesByCustomer.remove(customerId));
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        return taken.size();
+    }
+
+    int counterCount() {
+        return counters.size();
+    }
+
+    /**
+     * Loads every taken username from customer-service, retrying until it succeeds, and emits the
+     * change-feed offset to follow changes from. Allocation is allowed once this completes.
+     */
+    public Mono<Long> seed() {
+        return Mono.defer(() -> {
+                    log.info("Seeding username index from customer-service");
+                    return customerServiceClient.fetchUsernames(
+                            customer -> assign(customer.getId(), customer.getUsername()));
+                })
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1))
+                        .maxBackoff(Duration.ofSeconds(30))
+                        .doBeforeRetry(signal -> log.warn("Failed to seed username index from customer-service, retrying: {}",
+                                signal.failure().getMessage())))
+                .doOnNext(offset -> {
+                    ready = true;
+                    log.info("Username index seeded - Usernames: {}, Offset: {}", size(), offset);
+                });
+    }
+
+    private record Allocation(SuffixCounter counter, int suffix) {
+    }
+
+    /**
+     * Suffix state of one base name; guarded by its own monitor.
+     */
+    private static final class SuffixCounter {
+        private final String baseUsername;
+        private final TreeSet<Integer> released = new TreeSet<>();
+        private int next;
+        private int held;
+        private boolean dropped;
+
+        private SuffixCounter(String baseUsername) {
+            this.baseUsername = baseUsername;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package dk.au.credentialgeneration.service;
+
+/**
+ * Thrown when a username is requested before the username index has been seeded from
+ * customer-service. Mapped to 503 by the controller.
+ */
+public class UsernameIndexNotReadyException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public UsernameIndexNotReadyException(String message) {
+        super(message);
+    }
+}
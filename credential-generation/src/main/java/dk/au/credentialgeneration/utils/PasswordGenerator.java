@@ -2,14 +2,26 @@ package dk.au.credentialgeneration.utils;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
-import java.util.Random;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.List;
 
 @Component
 @Slf4j
 public class PasswordGenerator {
-    private static final String[] VOWELS = {"a", "e", "i", "o", "u"};
-    private static final String[] CONSONANTS = {"b", "c", "d", "f", "g", "h", "j", "k", "l", "m", "n", "p", "r", "s", "t", "v", "w", "x", "y", "z"};
-    private static final Random RANDOM = new Random();
+    private static final char[] VOWELS = {'a', 'e', 'i', 'o', 'u'};
+    private static final char[] CONSONANTS = {'b', 'c', 'd', 'f', 'g', 'h', 'j', 'k', 'l', 'm', 'n', 'p', 'r', 's', 't', 'v', 'w', 'x', 'y', 'z'};
+
+    // Random bytes at or above these limits are rejected so every letter is equally likely
+    private static final int VOWEL_LIMIT = 256 - 256 % VOWELS.length;
+    private static final int CONSONANT_LIMIT = 256 - 256 % CONSONANTS.length;
+
+    private static final int RANDOM_BUFFER_SIZE = 64;
+
+    // One generator per thread: a shared instance serialises every caller on its internal lock
+    private static final ThreadLocal<RandomSource> RANDOM = ThreadLocal.withInitial(RandomSource::new);
 
     public PasswordGenerator() {
         log.info("PasswordGenerator initialized with {} vowels and {} consonants", 
@@ -17,32 +29,48 @@ public class PasswordGenerator {
     }
 
     public String generatePronounceablePassword(int length) {
-        if (length <= 0) {
-            log.error("Invalid password length requested: {}", length);
-            throw new IllegalArgumentException("Password length must be positive");
-        }
-        
+        validateLength(length);
+
         log.debug("Generating pronounceable password of length: {}", length);
-        
-        StringBuilder password = new StringBuilder();
-        boolean useVowel = RANDOM.nextBoolean();
-
-        while (password.length() < length) {
-            if (useVowel) {
-                password.append(VOWELS[RANDOM.nextInt(VOWELS.length)]);
-            } else {
-                password.append(CONSONANTS[RANDOM.nextInt(CONSONANTS.length)]);
-            }
-            useVowel = !useVowel;
-        }
 
-        // Ensure the password is exactly the requested length
-        String generatedPassword = password.substring(0, length);
+        char[] password = new char[length];
+        RANDOM.get().fill(password);
+        String generatedPassword = new String(password);
         log.debug("Successfully generated pronounceable password of length: {}", generatedPassword.length());
-        
+
         return generatedPassword;
     }
 
+    /**
+     * Generates {@code count} pronounceable passwords of the given length, reusing the calling
+     * thread's random source and scratch buffer for the whole batch.
+     */
+    public List<String> generatePronounceablePasswords(int count, int length) {
+        if (count < 0) {
+            log.error("Invalid password count requested: {}", count);
+            throw new IllegalArgumentException("Password count must not be negative");
+        }
+        validateLength(length);
+
+        log.debug("Generating {} pronounceable passwords of length: {}", count, length);
+
+        RandomSource random = RANDOM.get();
+        char[] scratch = new char[length];
+        List<String> passwords = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            random.fill(scratch);
+            passwords.add(new String(scratch));
+        }
+        return passwords;
+    }
+
+    private static void validateLength(int length) {
+        if (length <= 0) {
+            log.error("Invalid password length requested: {}", length);
+            throw new IllegalArgumentException("Password length must be positive");
+        }
+    }
+
     public String generateUsername(String fullName) {
         if (fullName == null || fullName.trim().isEmpty()) {
             log.error("Attempted to generate username with null or empty full name");
@@ -66,4 +94,51 @@ public class PasswordGenerator {
         
         return username;
     }
-} 
\ No newline at end of file
+
+    /**
+     * Thread-confined cryptographically strong random source that draws bytes in blocks and
+     * maps them straight onto the letter tables.
+     */
+    private static final class RandomSource {
+        private final SecureRandom random = newSecureRandom();
+        private final byte[] buffer = new byte[RANDOM_BUFFER_SIZE];
+        private int position = RANDOM_BUFFER_SIZE;
+
+        void fill(char[] out) {
+            boolean useVowel = (nextByte() & 1) == 0;
+            int i = 0;
+            while (i < out.length) {
+                int b = nextByte();
+                if (useVowel) {
+                    if (b >= VOWEL_LIMIT) {
+                        continue;
+                    }
+                    out[i++] = VOWELS[b % VOWELS.length];
+                } else {
+                    if (b >= CONSONANT_LIMIT) {
+                        continue;
+                    }
+                    out[i++] = CONSONANTS[b % CONSONANTS.length];
+                }
+                useVowel = !useVowel;
+            }
+        }
+
+        private int nextByte() {
+            if (position == buffer.length) {
+                random.nextBytes(buffer);
+                position = 0;
+            }
+            return buffer[position++] & 0xFF;
+        }
+
+        private static SecureRandom newSecureRandom() {
+            try {
+                // DRBG keeps its state per instance instead of sharing the process-wide NativePRNG
+                return SecureRandom.getInstance("DRBG");
+            } catch (NoSuchAlgorithmException e) {
+                return new SecureRandom();
+            }
+        }
+    }
+}
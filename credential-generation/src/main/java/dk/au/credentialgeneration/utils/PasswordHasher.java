@@ -1,17 +1,51 @@
 package dk.au.credentialgeneration.utils;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Component;
 
+import java.util.Arrays;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
 @Component
 @Slf4j
 public class PasswordHasher {
+    private static final String CALIBRATION_PASSWORD = "calibration";
+    private static final int CALIBRATION_SAMPLES = 3;
+    private static final Pattern BCRYPT_PATTERN = Pattern.compile("\\$2[aby]?\\$(\\d\\d)\\$[./A-Za-z0-9]{53}");
+
     private final BCryptPasswordEncoder encoder;
+    private final int strength;
+
+    /**
+     * Uses the configured BCrypt strength, or calibrates one at startup when the strength is 0:
+     * the highest strength between the minimum and maximum whose hashing time stays within the
+     * target latency on this machine.
+     */
+    @Autowired
+    public PasswordHasher(
+            @Value("${credential.hashing.bcrypt.strength:0}") int configuredStrength,
+            @Value("${credential.hashing.bcrypt.target-millis:100}") long targetMillis,
+            @Value("${credential.hashing.bcrypt.min-strength:10}") int minStrength,
+            @Value("${credential.hashing.bcrypt.max-strength:14}") int maxStrength) {
+        this(configuredStrength > 0 ? configuredStrength : calibrate(targetMillis, minStrength, maxStrength));
+        if (configuredStrength <= 0) {
+            log.warn("BCrypt strength was calibrated on this instance; set credential.hashing.bcrypt.strength "
+                    + "when running several instances, otherwise they re-hash each other's passwords");
+        }
+    }
+
+    public PasswordHasher(int strength) {
+        this.strength = strength;
+        this.encoder = new BCryptPasswordEncoder(strength);
+        log.info("PasswordHasher initialized with BCrypt encoder, strength: {}", strength);
+    }
 
-    public PasswordHasher() {
-        this.encoder = new BCryptPasswordEncoder();
-        log.info("PasswordHasher initialized with BCrypt encoder");
+    public int getStrength() {
+        return strength;
     }
 
     public String hashPassword(String password) {
@@ -19,11 +53,11 @@ public class PasswordHasher {
             log.error("Attempted to hash null or empty password");
             throw new IllegalArgumentException("Password cannot be null or empty");
         }
-        
+
         log.debug("Hashing password of length: {}", password.length());
         String hashedPassword = encoder.encode(password);
         log.debug("Password hashed successfully, hash length: {}", hashedPassword.length());
-        
+
         return hashedPassword;
     }
 
@@ -32,14 +66,66 @@ public class PasswordHasher {
             log.error("Attempted to verify with null password or hash");
             return false;
         }
-        
-        log.debug("Verifying password of length: {} against hash of length: {}", 
+
+        log.debug("Verifying password of length: {} against hash of length: {}",
                 rawPassword.length(), hashedPassword.length());
-        
+
         boolean matches = encoder.matches(rawPassword, hashedPassword);
         log.debug("Password verification result: {}", matches);
-        
+
         return matches;
     }
-} 
 
+    /**
+     * Returns true when the hash was produced with a different strength than the current one and
+     * should be replaced after the next successful verification. Hashes above the target are
+     * rehashed too, so every hash converges on the target instead of on the highest strength any
+     * instance ever used. The target must therefore be the same on every instance.
+     */
+    public boolean needsRehash(String hashedPassword) {
+        if (hashedPassword == null || hashedPassword.isEmpty()) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_PATTERN.matcher(hashedPassword);
+        if (!matcher.matches()) {
+            log.warn("Stored password hash is not a BCrypt hash, cannot check its strength");
+            return false;
+        }
+        return Integer.parseInt(matcher.group(1)) != strength;
+    }
+
+    static int calibrate(long targetMillis, int minStrength, int maxStrength) {
+        if (minStrength < 4 || maxStrength > 31 || minStrength > maxStrength) {
+            throw new IllegalArgumentException("BCrypt strength range must be within 4..31 and min <= max");
+        }
+
+        // Warm up the JIT so the first measurement is not dominated by interpretation
+        new BCryptPasswordEncoder(minStrength).encode(CALIBRATION_PASSWORD);
+
+        int chosen = minStrength;
+        for (int candidate = minStrength; candidate <= maxStrength; candidate++) {
+            long millis = medianHashMillis(candidate);
+            log.info("BCrypt calibration - Strength: {}, MedianMillis: {}", candidate, millis);
+            if (millis > targetMillis) {
+                break;
+            }
+            // Each step doubles the cost, so the first strength over the target ends the search
+            chosen = candidate;
+        }
+
+        log.info("BCrypt calibration selected strength {} for a target of {} ms", chosen, targetMillis);
+        return chosen;
+    }
+
+    private static long medianHashMillis(int strength) {
+        BCryptPasswordEncoder candidate = new BCryptPasswordEncoder(strength);
+        long[] samples = new long[CALIBRATION_SAMPLES];
+        for (int i = 0; i < samples.length; i++) {
+            long start = System.nanoTime();
+            candidate.encode(CALIBRATION_PASSWORD);
+            samples[i] = (System.nanoTime() - start) / 1_000_000;
+        }
+        Arrays.sort(samples);
+        return samples[samples.length / 2];
+    }
+}
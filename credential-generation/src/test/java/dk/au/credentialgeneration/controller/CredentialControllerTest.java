@@ -0,0 +1,117 @@
+package dk.au.credentialgeneration.controller;
+
+import dk.au.credentialgeneration.dto.CredentialRequest;
+import dk.au.credentialgeneration.dto.CredentialResponse;
+import dk.au.credentialgeneration.dto.CredentialSnapshot;
+import dk.au.credentialgeneration.dto.CustomerCredentialView;
+import dk.au.credentialgeneration.dto.PasswordVerificationRequest;
+import dk.au.credentialgeneration.service.BatchCredentialService;
+import dk.au.credentialgeneration.service.CredentialSnapshotCache;
+import dk.au.credentialgeneration.service.CustomerServiceClient;
+import dk.au.credentialgeneration.service.HashingPoolSaturatedException;
+import dk.au.credentialgeneration.service.HashingWorkerPool;
+import dk.au.credentialgeneration.service.PasswordRehashService;
+import dk.au.credentialgeneration.service.UsernameAllocator;
+import dk.au.credentialgeneration.service.UsernameIndexNotReadyException;
+import dk.au.credentialgeneration.utils.PasswordGenerator;
+import dk.au.credentialgeneration.utils.PasswordHasher;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CredentialControllerTest {
+    @Mock
+    private PasswordGenerator passwordGenerator;
+
+    @Mock
+    private PasswordHasher passwordHasher;
+
+    @Mock
+    private HashingWorkerPool hashingWorkerPool;
+
+    @Mock
+    private CustomerServiceClient customerServiceClient;
+
+    @Mock
+    private BatchCredentialService batchCredentialService;
+
+    @Mock
+    private CredentialSnapshotCache credentialSnapshotCache;
+
+    @Mock
+    private PasswordRehashService passwordRehashService;
+
+    @Mock
+    private UsernameAllocator usernameAllocator;
+
+    @InjectMocks
+    private CredentialController credentialController;
+
+    @Test
+    void generateCredentials_WhenHashingPoolIsSaturated_ShouldReturn503AndReleaseUsername() {
+        CustomerCredentialView view = new CustomerCredentialView();
+        view.setId(1L);
+        view.setName("Max Mustermann");
+        when(customerServiceClient.fetchCredentialView(1L)).thenReturn(Mono.just(view));
+        when(passwordGenerator.generateUsername("Max Mustermann")).thenReturn("max.mustermann");
+        when(usernameAllocator.allocate("max.mustermann", null)).thenReturn("max.mustermann");
+        when(passwordGenerator.generatePronounceablePassword(anyInt())).thenReturn("secret");
+        when(hashingWorkerPool.submit(eq("hash"), any()))
+                .thenReturn(Mono.error(new HashingPoolSaturatedException("saturated")));
+        CredentialRequest request = new CredentialRequest();
+        request.setCustomerId(1L);
+
+        ResponseEntity<CredentialResponse> response = credentialController.generateCredentials(request).block();
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        verify(usernameAllocator).release("max.mustermann");
+        verify(customerServiceClient).fetchCredentialView(1L);
+    }
+
+    @Test
+    void generateCredentials_WhenUsernameIndexIsNotSeeded_ShouldReturn503WithoutHashing() {
+        CustomerCredentialView view = new CustomerCredentialView();
+        view.setId(1L);
+        view.setName("Max Mustermann");
+        when(customerServiceClient.fetchCredentialView(1L)).thenReturn(Mono.just(view));
+        when(passwordGenerator.generateUsername("Max Mustermann")).thenReturn("max.mustermann");
+        when(usernameAllocator.allocate("max.mustermann", null))
+                .thenThrow(new UsernameIndexNotReadyException("not seeded"));
+        CredentialRequest request = new CredentialRequest();
+        request.setCustomerId(1L);
+
+        ResponseEntity<CredentialResponse> response = credentialController.generateCredentials(request).block();
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        verifyNoInteractions(hashingWorkerPool);
+    }
+
+    @Test
+    void verifyPassword_WhenHashingPoolIsSaturated_ShouldReturn503() {
+        when(credentialSnapshotCache.get(1L)).thenReturn(Mono.just(new CredentialSnapshot("max.mustermann", "hash", 1L)));
+        when(hashingWorkerPool.submit(eq("verify"), any()))
+                .thenReturn(Mono.error(new HashingPoolSaturatedException("saturated")));
+        PasswordVerificationRequest request = new PasswordVerificationRequest();
+        request.setCustomerId(1L);
+        request.setRawPassword("secret");
+
+        ResponseEntity<Boolean> response = credentialController.verifyPassword(request).block();
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        verifyNoInteractions(passwordRehashService);
+    }
+}
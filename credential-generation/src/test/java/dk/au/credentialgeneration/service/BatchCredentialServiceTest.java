@@ -0,0 +1,95 @@
+package dk.au.credentialgeneration.service;
+
+import dk.au.credentialgeneration.dto.BatchCredentialResult;
+import dk.au.credentialgeneration.dto.CustomerCredentialView;
+import dk.au.credentialgeneration.utils.PasswordGenerator;
+import dk.au.credentialgeneration.utils.PasswordHasher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BatchCredentialServiceTest {
+    @Mock
+    private CustomerServiceClient customerServiceClient;
+
+    @Mock
+    private CredentialSnapshotCache credentialSnapshotCache;
+
+    @Mock
+    private PasswordGenerator passwordGenerator;
+
+    @Mock
+    private PasswordHasher passwordHasher;
+
+    @Mock
+    private HashingWorkerPool hashingWorkerPool;
+
+    private UsernameAllocator usernameAllocator;
+    private BatchCredentialService batchCredentialService;
+
+    @BeforeEach
+    void setUp() {
+        when(customerServiceClient.fetchUsernames(any())).thenReturn(Mono.just(0L));
+        usernameAllocator = new UsernameAllocator(customerServiceClient);
+        usernameAllocator.seed().block();
+        batchCredentialService = new BatchCredentialService(customerServiceClient, credentialSnapshotCache,
+                usernameAllocator, passwordGenerator, passwordHasher, hashingWorkerPool, 4, 10, 2);
+    }
+
+    @Test
+    void generate_WhenHashingFails_ShouldReleaseAllocatedUsername() {
+        CustomerCredentialView view = new CustomerCredentialView();
+        view.setId(1L);
+        view.setName("Max Mustermann");
+        when(customerServiceClient.fetchCredentialView(1L)).thenReturn(Mono.just(view));
+        when(passwordGenerator.generateUsername("Max Mustermann")).thenReturn("max.mustermann");
+        when(passwordGenerator.generatePronounceablePassword(anyInt())).thenReturn("secret");
+        when(hashingWorkerPool.submit(eq("hash"), any())).thenReturn(Mono.error(new IllegalStateException("boom")));
+
+        List<BatchCredentialResult> results = batchCredentialService.generate(List.of(1L)).collectList().block();
+
+        assertThat(results).hasSize(1);
+        assertThat(results.get(0).getStatus()).isEqualTo(BatchCredentialResult.Status.FAILED);
+        assertThat(usernameAllocator.size()).isZero();
+        assertThat(usernameAllocator.allocate("max.mustermann")).isEqualTo("max.mustermann");
+        verify(customerServiceClient).fetchUsernames(any());
+        verify(customerServiceClient).fetchCredentialView(1L);
+        verifyNoMoreInteractions(customerServiceClient);
+    }
+
+    @Test
+    void generate_WhenChunkUpdateFails_ShouldReleaseAllocatedUsername() {
+        CustomerCredentialView view = new CustomerCredentialView();
+        view.setId(1L);
+        view.setName("Max Mustermann");
+        when(customerServiceClient.fetchCredentialView(1L)).thenReturn(Mono.just(view));
+        when(passwordGenerator.generateUsername("Max Mustermann")).thenReturn("max.mustermann");
+        when(passwordGenerator.generatePronounceablePassword(anyInt())).thenReturn("secret");
+        when(hashingWorkerPool.submit(eq("hash"), any())).thenReturn(Mono.just("hashed"));
+        when(customerServiceClient.updateCredentialsBatch(any()))
+                .thenReturn(Mono.error(new IllegalStateException("customer-service down")));
+
+        List<BatchCredentialResult> results = batchCredentialService.generate(List.of(1L)).collectList().block();
+
+        assertThat(results).hasSize(1);
+        assertThat(results.get(0).getStatus()).isEqualTo(BatchCredentialResult.Status.FAILED);
+        assertThat(usernameAllocator.size()).isZero();
+        assertThat(usernameAllocator.allocate("max.mustermann")).isEqualTo("max.mustermann");
+        verifyNoInteractions(credentialSnapshotCache);
+    }
+}
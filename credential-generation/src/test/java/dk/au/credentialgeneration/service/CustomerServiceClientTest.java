@@ -0,0 +1,78 @@
+package dk.au.credentialgeneration.service;
+
+import dk.au.credentialgeneration.config.RequestIdFilter;
+import dk.au.credentialgeneration.dto.CustomerCredentialView;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CustomerServiceClientTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger requests = new AtomicInteger();
+    private final List<String> forwardedRequestIds = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean cancelled = new AtomicBoolean();
+    private final Sinks.One<ClientResponse> response = Sinks.one();
+
+    private final CustomerServiceClient customerServiceClient = new CustomerServiceClient(
+            WebClient.builder()
+                    .exchangeFunction(request -> Mono.deferContextual(context -> {
+                        requests.incrementAndGet();
+                        context.<String>getOrEmpty(RequestIdFilter.MDC_KEY).ifPresent(forwardedRequestIds::add);
+                        return response.asMono().doOnCancel(() -> cancelled.set(true));
+                    }))
+                    .build(),
+            CircuitBreakerRegistry.ofDefaults(),
+            meterRegistry);
+
+    @Test
+    void fetchCredentialView_ConcurrentlyForSameCustomer_ShouldSendOneRequestWithCallersContext() throws Exception {
+        CompletableFuture<CustomerCredentialView> first = customerServiceClient.fetchCredentialView(1L)
+                .contextWrite(context -> context.put(RequestIdFilter.MDC_KEY, "req-1"))
+                .toFuture();
+        CompletableFuture<CustomerCredentialView> second = customerServiceClient.fetchCredentialView(1L)
+                .contextWrite(context -> context.put(RequestIdFilter.MDC_KEY, "req-2"))
+                .toFuture();
+
+        response.tryEmitValue(ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body("{\"id\":1,\"name\":\"Max Mustermann\",\"username\":\"max.mustermann\"}")
+                .build());
+
+        assertThat(first.get(5, TimeUnit.SECONDS).getUsername()).isEqualTo("max.mustermann");
+        assertThat(second.get(5, TimeUnit.SECONDS).getUsername()).isEqualTo("max.mustermann");
+        assertThat(requests).hasValue(1);
+        assertThat(forwardedRequestIds).containsExactly("req-1");
+        assertThat(meterRegistry.get("customer.service.lookups.coalesced").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void fetchCredentialView_WhenEveryCallerCancels_ShouldCancelRequest() {
+        Disposable first = customerServiceClient.fetchCredentialView(1L).subscribe();
+        Disposable second = customerServiceClient.fetchCredentialView(1L).subscribe();
+
+        first.dispose();
+        assertThat(cancelled).isFalse();
+        second.dispose();
+
+        assertThat(cancelled).isTrue();
+        customerServiceClient.fetchCredentialView(1L).subscribe().dispose();
+        assertThat(requests).hasValue(2);
+    }
+}
@@ -0,0 +1,61 @@
+package dk.au.credentialgeneration.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HashingWorkerPoolTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final HashingWorkerPool hashingWorkerPool = new HashingWorkerPool(meterRegistry, 1, 1);
+
+    @AfterEach
+    void tearDown() {
+        hashingWorkerPool.shutdown();
+    }
+
+    @Test
+    void submit_ShouldRunTaskAndRecordExecution() {
+        assertThat(hashingWorkerPool.submit("hash", () -> "hashed").block(Duration.ofSeconds(5))).isEqualTo("hashed");
+
+        assertThat(meterRegistry.get("credential.hashing.execution").tag("operation", "hash").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void submit_WhenTaskFails_ShouldRecordExecutionBeforeFailing() {
+        assertThatThrownBy(() -> hashingWorkerPool.submit("verify", () -> {
+            throw new IllegalStateException("boom");
+        }).block(Duration.ofSeconds(5))).hasMessageContaining("boom");
+
+        assertThat(meterRegistry.get("credential.hashing.execution").tag("operation", "verify").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void submit_WhenWorkersAndQueueAreFull_ShouldRejectWithSaturatedException() throws InterruptedException {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Mono<Boolean> busy = hashingWorkerPool.submit("hash", () -> {
+            running.countDown();
+            return release.await(5, TimeUnit.SECONDS);
+        });
+        busy.subscribe();
+        assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+        Mono<String> queued = hashingWorkerPool.submit("hash", () -> "queued");
+        queued.subscribe();
+
+        assertThatThrownBy(() -> hashingWorkerPool.submit("hash", () -> "rejected").block(Duration.ofSeconds(5)))
+                .isInstanceOf(HashingPoolSaturatedException.class);
+        assertThat(meterRegistry.get("credential.hashing.rejected").counter().count()).isEqualTo(1);
+
+        release.countDown();
+    }
+}
@@ -0,0 +1,59 @@
+package dk.au.credentialgeneration.service;
+
+import dk.au.credentialgeneration.dto.CredentialSnapshot;
+import dk.au.credentialgeneration.utils.PasswordHasher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PasswordRehashServiceTest {
+    @Mock
+    private PasswordHasher passwordHasher;
+
+    @Mock
+    private HashingWorkerPool hashingWorkerPool;
+
+    @Mock
+    private CustomerServiceClient customerServiceClient;
+
+    @Mock
+    private CredentialSnapshotCache credentialSnapshotCache;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PasswordRehashService passwordRehashService;
+
+    @BeforeEach
+    void setUp() {
+        passwordRehashService = new PasswordRehashService(passwordHasher, hashingWorkerPool, customerServiceClient,
+                credentialSnapshotCache, meterRegistry);
+    }
+
+    @Test
+    void rehashIfNeeded_WhenCredentialsChangedMeanwhile_ShouldDropNewHashAsStale() {
+        CredentialSnapshot snapshot = new CredentialSnapshot("max.mustermann", "old-hash", 3L);
+        when(passwordHasher.needsRehash("old-hash")).thenReturn(true);
+        when(hashingWorkerPool.submit(eq("rehash"), any())).thenReturn(Mono.just("new-hash"));
+        when(customerServiceClient.updateCredentials(1L, Map.of("username", "max.mustermann", "password", "new-hash"), 3L))
+                .thenReturn(Mono.error(WebClientResponseException.create(412, "Precondition Failed", null, null, null)));
+
+        passwordRehashService.rehashIfNeeded(1L, snapshot, "secret");
+
+        assertThat(meterRegistry.get("credential.rehash").tag("outcome", "stale").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.find("credential.rehash").tag("outcome", "failure").counter()).isNull();
+        verify(credentialSnapshotCache).invalidate(1L);
+    }
+}
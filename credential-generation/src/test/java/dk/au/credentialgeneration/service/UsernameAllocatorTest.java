@@ -0,0 +1,182 @@
+package dk.au.credentialgeneration.service;
+
+import dk.au.credentialgeneration.dto.CustomerUsername;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UsernameAllocatorTest {
+    @Mock
+    private CustomerServiceClient customerServiceClient;
+
+    private UsernameAllocator usernameAllocator;
+
+    @BeforeEach
+    void setUp() {
+        when(customerServiceClient.fetchUsernames(any())).thenReturn(Mono.just(0L));
+        usernameAllocator = new UsernameAllocator(customerServiceClient);
+        usernameAllocator.seed().block();
+    }
+
+    @Test
+    void allocate_BeforeSeedCompletes_ShouldRefuseNewUsernames() {
+        UsernameAllocator unseeded = new UsernameAllocator(customerServiceClient);
+
+        assertThat(unseeded.isReady()).isFalse();
+        assertThatThrownBy(() -> unseeded.allocate("max.mustermann"))
+                .isInstanceOf(UsernameIndexNotReadyException.class);
+        assertThat(unseeded.allocate("max.mustermann", "max.mustermann7")).isEqualTo("max.mustermann7");
+    }
+
+    @Test
+    void seed_ShouldRegisterListedUsernamesAndEmitOffset() {
+        when(customerServiceClient.fetchUsernames(any())).thenAnswer(invocation -> {
+            Consumer<CustomerUsername> action = invocation.getArgument(0);
+            action.accept(new CustomerUsername(1L, "max.mustermann"));
+            action.accept(new CustomerUsername(2L, "max.mustermann2"));
+            return Mono.just(42L);
+        });
+        UsernameAllocator seeded = new UsernameAllocator(customerServiceClient);
+
+        assertThat(seeded.seed().block()).isEqualTo(42L);
+        assertThat(seeded.isReady()).isTrue();
+        assertThat(seeded.allocate("max.mustermann")).isEqualTo("max.mustermann3");
+    }
+
+    @Test
+    void assign_WhenCustomerChangesUsername_ShouldFreePreviousOne() {
+        usernameAllocator.assign(1L, usernameAllocator.allocate("max.mustermann"));
+        usernameAllocator.assign(1L, "maxi.mustermann");
+
+        assertThat(usernameAllocator.allocate("max.mustermann")).isEqualTo("max.mustermann");
+        assertThat(usernameAllocator.allocate("maxi.mustermann")).isEqualTo("maxi.mustermann2");
+    }
+
+    @Test
+    void unassign_ShouldFreeCustomersUsername() {
+        usernameAllocator.assign(1L, "max.mustermann");
+
+        usernameAllocator.unassign(1L);
+
+        assertThat(usernameAllocator.size()).isZero();
+        assertThat(usernameAllocator.allocate("max.mustermann")).isEqualTo("max.mustermann");
+    }
+
+    @Test
+    void allocate_WhenBaseNameIsFree_ShouldReturnBaseName() {
+        assertThat(usernameAllocator.allocate("max.mustermann")).isEqualTo("max.mustermann");
+    }
+
+    @Test
+    void allocate_WhenBaseNameIsTaken_ShouldAppendSuffix() {
+        assertThat(usernameAllocator.allocate("max.mustermann")).isEqualTo("max.mustermann");
+        assertThat(usernameAllocator.allocate("max.mustermann")).isEqualTo("max.mustermann2");
+        assertThat(usernameAllocator.allocate("max.mustermann")).isEqualTo("max.mustermann3");
+    }
+
+    @Test
+    void allocate_ShouldSkipRegisteredUsernames() {
+        usernameAllocator.register("max.mustermann");
+        usernameAllocator.register("max.mustermann2");
+
+        assertThat(usernameAllocator.allocate("max.mustermann")).isEqualTo("max.mustermann3");
+    }
+
+    @Test
+    void allocate_AfterRelease_ShouldReuseLowestReleasedSuffix() {
+        usernameAllocator.allocate("max.mustermann");
+        usernameAllocator.allocate("max.mustermann");
+        usernameAllocator.allocate("max.mustermann");
+        usernameAllocator.allocate("max.mustermann");
+
+        usernameAllocator.release("max.mustermann3");
+        usernameAllocator.release("max.mustermann2");
+
+        assertThat(usernameAllocator.allocate("max.mustermann")).isEqualTo("max.mustermann2");
+        assertThat(usernameAllocator.allocate("max.mustermann")).isEqualTo("max.mustermann3");
+        assertThat(usernameAllocator.allocate("max.mustermann")).isEqualTo("max.mustermann5");
+    }
+
+    @Test
+    void release_OfLastUsernameOfBase_ShouldDropCounter() {
+        String first = usernameAllocator.allocate("max.mustermann");
+        String second = usernameAllocator.allocate("max.mustermann");
+        assertThat(usernameAllocator.counterCount()).isEqualTo(1);
+
+        usernameAllocator.release(second);
+        usernameAllocator.release(first);
+
+        assertThat(usernameAllocator.counterCount()).isZero();
+        assertThat(usernameAllocator.size()).isZero();
+        assertThat(usernameAllocator.allocate("max.mustermann")).isEqualTo("max.mustermann");
+    }
+
+    @Test
+    void allocate_WithCurrentUsername_ShouldKeepIt() {
+        String username = usernameAllocator.allocate("max.mustermann", "max.mustermann7");
+
+        assertThat(username).isEqualTo("max.mustermann7");
+        assertThat(usernameAllocator.allocate("max.mustermann")).isEqualTo("max.mustermann");
+    }
+
+    @Test
+    void allocate_ConcurrentlyForIdenticalNames_ShouldNeverHandOutDuplicates() throws Exception {
+        int threads = 32;
+        int allocationsPerThread = 200;
+        usernameAllocator.register("max.mustermann2");
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<String>>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < threads; t++) {
+                Callable<List<String>> task = () -> {
+                    start.await();
+                    List<String> allocated = new ArrayList<>(allocationsPerThread);
+                    for (int i = 0; i < allocationsPerThread; i++) {
+                        allocated.add(usernameAllocator.allocate("max.mustermann"));
+                    }
+                    return allocated;
+                };
+                futures.add(executor.submit(task));
+            }
+            start.countDown();
+
+            Set<String> unique = new HashSet<>();
+            int total = 0;
+            for (Future<List<String>> future : futures) {
+                List<String> allocated = future.get(30, TimeUnit.SECONDS);
+                total += allocated.size();
+                unique.addAll(allocated);
+            }
+
+            assertThat(total).isEqualTo(threads * allocationsPerThread);
+            assertThat(unique).hasSize(total);
+            assertThat(unique).doesNotContain("max.mustermann2");
+            assertThat(unique).contains("max.mustermann");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
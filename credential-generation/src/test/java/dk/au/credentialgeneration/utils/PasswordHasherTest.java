@@ -0,0 +1,30 @@
+package dk.au.credentialgeneration.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PasswordHasherTest {
+    private final PasswordHasher passwordHasher = new PasswordHasher(5);
+
+    @Test
+    void needsRehash_WhenHashHasTargetStrength_ShouldReturnFalse() {
+        assertThat(passwordHasher.needsRehash(passwordHasher.hashPassword("secret"))).isFalse();
+    }
+
+    @Test
+    void needsRehash_WhenHashHasLowerStrength_ShouldReturnTrue() {
+        assertThat(passwordHasher.needsRehash(new PasswordHasher(4).hashPassword("secret"))).isTrue();
+    }
+
+    @Test
+    void needsRehash_WhenHashHasHigherStrength_ShouldReturnTrue() {
+        assertThat(passwordHasher.needsRehash(new PasswordHasher(6).hashPassword("secret"))).isTrue();
+    }
+
+    @Test
+    void needsRehash_WhenHashIsNotBCrypt_ShouldReturnFalse() {
+        assertThat(passwordHasher.needsRehash("plaintext")).isFalse();
+        assertThat(passwordHasher.needsRehash(null)).isFalse();
+    }
+}
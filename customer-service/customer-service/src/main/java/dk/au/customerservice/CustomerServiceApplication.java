@@ -3,9 +3,13 @@ package dk.au.customerservice;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableCaching
+@EnableScheduling
 @EntityScan(basePackages = "dk.au.customerservice.model")
 @EnableJpaRepositories(basePackages = "dk.au.customerservice.repo")
 public class CustomerServiceApplication {
@@ -0,0 +1,55 @@
+package dk.au.customerservice.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fills customer columns added after rows were first stored. Each statement only touches rows
+ * that still need it, so running it on every startup is cheap. Runs while the context starts,
+ * after Hibernate has added the columns and before the web server accepts requests.
+ * <ul>
+ *     <li>{@code username} is copied from the credentials table.</li>
+ *     <li>{@code version} is set to 0; a null version would make Spring Data treat the customer
+ *     as new on save.</li>
+ * </ul>
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+@Slf4j
+public class CustomerDataBackfill {
+    private static final String USERNAME_SQL =
+            "update customer set username = (" +
+            "  select cc.credential_value from customer_credentials cc" +
+            "  where cc.customer_id = customer.id and cc.credential_key = 'username') " +
+            "where username is null and exists (" +
+            "  select 1 from customer_credentials cc" +
+            "  where cc.customer_id = customer.id and cc.credential_key = 'username')";
+
+    private static final String VERSION_SQL = "update customer set version = 0 where version is null";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    void backfill() {
+        int versions = jdbcTemplate.update(VERSION_SQL);
+        if (versions > 0) {
+            log.info("Backfilled versions - Customers: {}", versions);
+        }
+
+        try {
+            int usernames = jdbcTemplate.update(USERNAME_SQL);
+            if (usernames > 0) {
+                log.info("Backfilled usernames - Customers: {}", usernames);
+            }
+        } catch (DataIntegrityViolationException e) {
+            // Existing data holds the same username twice; lookups by username skip these customers
+            log.warn("Username backfill failed, duplicate usernames must be resolved manually: {}", e.getMessage());
+        }
+    }
+}
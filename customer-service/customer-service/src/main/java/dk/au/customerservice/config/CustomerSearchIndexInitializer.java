@@ -0,0 +1,77 @@
+package dk.au.customerservice.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Creates the pg_trgm extension and the indexes used by customer search, if missing.
+ * <p>
+ * The search query cannot run without pg_trgm, so the extension is checked while the context
+ * starts and a missing one fails startup; creating it needs a role allowed to do so, otherwise
+ * set {@code customer.search.mode} to {@code memory}. The indexes are built afterwards with
+ * {@code create index concurrently}, so writes to the customer table keep going during the
+ * build. Until they exist, searches still work but scan the table.
+ */
+@Component
+@ConditionalOnProperty(name = "customer.search.mode", havingValue = "postgres")
+@RequiredArgsConstructor
+@Slf4j
+public class CustomerSearchIndexInitializer implements ApplicationRunner {
+    private static final List<SearchIndex> INDEXES = List.of(
+            new SearchIndex("idx_customer_name_trgm", "customer using gin (lower(name) gin_trgm_ops)"),
+            new SearchIndex("idx_customer_phone_prefix", "customer (phone_number varchar_pattern_ops)"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    void requireTrigramExtension() {
+        try {
+            jdbcTemplate.execute("create extension if not exists pg_trgm");
+        } catch (DataAccessException e) {
+            throw new IllegalStateException("customer.search.mode=postgres needs the pg_trgm extension, which could "
+                    + "not be created; create it as a privileged role or set customer.search.mode=memory", e);
+        }
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        for (SearchIndex index : INDEXES) {
+            try {
+                createIndex(index);
+            } catch (DataAccessException e) {
+                log.warn("Could not create customer search index - Index: {}, Error: {}", index.name(), e.getMessage());
+            }
+        }
+    }
+
+    // Runs outside a transaction, which create index concurrently requires
+    private void createIndex(SearchIndex index) {
+        Boolean valid = jdbcTemplate.query(
+                "select i.indisvalid from pg_index i join pg_class c on c.oid = i.indexrelid where c.relname = ?",
+                rs -> rs.next() ? rs.getBoolean(1) : null,
+                index.name());
+        if (Boolean.TRUE.equals(valid)) {
+            return;
+        }
+        if (valid != null) {
+            // An interrupted concurrent build leaves an invalid index behind that is never used
+            log.warn("Dropping invalid customer search index - Index: {}", index.name());
+            jdbcTemplate.execute("drop index concurrently if exists " + index.name());
+        }
+        log.info("Building customer search index - Index: {}", index.name());
+        jdbcTemplate.execute("create index concurrently if not exists " + index.name() + " on " + index.definition());
+        log.info("Customer search index ready - Index: {}", index.name());
+    }
+
+    private record SearchIndex(String name, String definition) {
+    }
+}
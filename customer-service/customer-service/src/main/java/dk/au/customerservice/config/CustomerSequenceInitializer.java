@@ -0,0 +1,42 @@
+package dk.au.customerservice.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves {@code customer_seq} past the highest existing customer ID on PostgreSQL.
+ * <p>
+ * Customer IDs used to come from an IDENTITY column; databases created back then hold rows
+ * the new sequence knows nothing about. Runs while the context starts, after Hibernate has
+ * updated the schema and before the web server accepts requests or {@link DataLoader} runs, so
+ * no insert can draw an ID that is already taken. A no-op once the sequence is ahead.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+@Slf4j
+public class CustomerSequenceInitializer {
+    private static final int ALLOCATION_SIZE = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    void alignSequence() {
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equals(database)) {
+            return;
+        }
+
+        Long value = jdbcTemplate.queryForObject(
+                "select setval('customer_seq', greatest((select coalesce(max(id), 0) from customer) + ?, " +
+                        "(select last_value from customer_seq)))",
+                Long.class, ALLOCATION_SIZE);
+        log.info("Customer ID sequence aligned - Value: {}", value);
+    }
+}
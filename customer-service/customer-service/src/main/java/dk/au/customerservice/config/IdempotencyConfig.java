@@ -0,0 +1,25 @@
+package dk.au.customerservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+@Configuration
+public class IdempotencyConfig {
+
+    /**
+     * Customer creation is the only non-idempotent customer endpoint clients retry.
+     */
+    @Bean
+    public IdempotencyFilter idempotencyFilter(
+            @Value("${customer.idempotency.ttl:1h}") Duration ttl,
+            @Value("${customer.idempotency.max-entries:50000}") long maxEntries,
+            @Value("${customer.idempotency.wait-timeout:10s}") Duration waitTimeout) {
+        return new IdempotencyFilter(List.of(
+                new IdempotencyFilter.Endpoint("POST", "/api/customers")),
+                ttl, maxEntries, waitTimeout);
+    }
+}
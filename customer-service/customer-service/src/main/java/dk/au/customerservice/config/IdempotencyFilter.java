@@ -0,0 +1,272 @@
+package dk.au.customerservice.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Makes client retries of the configured endpoints safe. A request carrying {@value #HEADER} runs
+ * once; repeats with the same key get the stored response replayed (marked with
+ * {@value #REPLAYED_HEADER}) without reaching the controller. A duplicate that arrives while the
+ * first is still running waits for its outcome instead of running in parallel.
+ * <p>
+ * Responses below 500 are kept for the configured TTL, up to the configured number of entries.
+ * Server errors and exceptions are not stored, so the client can retry them. Requests still
+ * running are tracked apart from the stored responses, so the size bound never evicts one that is
+ * in flight and lets its duplicate run a second time. Reusing a key with a different request body is answered with 422.
+ * Keys are scoped to the caller, identified by its {@code Authorization} header or, without one,
+ * its address, so a client is never handed another client's stored response. Keys are held per
+ * instance, so retries only deduplicate when they reach the same instance.
+ * <p>
+ * customer-service and exhibition-service share this class unchanged; each registers it with its
+ * own endpoints and settings in {@code IdempotencyConfig}.
+ */
+@Slf4j
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class IdempotencyFilter extends OncePerRequestFilter {
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final List<Endpoint> endpoints;
+    private final Cache<String, StoredResponse> responses;
+    private final ConcurrentMap<String, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+    private final Duration waitTimeout;
+
+    public IdempotencyFilter(List<Endpoint> endpoints, Duration ttl, long maxEntries, Duration waitTimeout) {
+        this.endpoints = List.copyOf(endpoints);
+        this.responses = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxEntries)
+                .build();
+        this.waitTimeout = waitTimeout;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getHeader(HEADER) == null || endpoints.stream().noneMatch(endpoint ->
+                endpoint.method().equals(request.getMethod())
+                        && pathMatcher.match(endpoint.pathPattern(), request.getRequestURI()));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String key = request.getHeader(HEADER);
+        if (!StringUtils.hasText(key) || key.length() > MAX_KEY_LENGTH) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), HEADER + " must be 1-" + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+        CachedBodyRequest cachedRequest = new CachedBodyRequest(request);
+        byte[] fingerprint = sha256(cachedRequest.body);
+        String cacheKey = caller(request) + " " + request.getMethod() + " " + request.getRequestURI() + " " + key;
+
+        while (true) {
+            StoredResponse stored = responses.getIfPresent(cacheKey);
+            if (stored == null) {
+                CompletableFuture<StoredResponse> execution = new CompletableFuture<>();
+                CompletableFuture<StoredResponse> existing = inFlight.putIfAbsent(cacheKey, execution);
+                if (existing == null) {
+                    // The previous execution may have been stored between the lookup and the claim
+                    stored = responses.getIfPresent(cacheKey);
+                    if (stored == null) {
+                        execute(cacheKey, execution, fingerprint, cachedRequest, response, filterChain);
+                        return;
+                    }
+                    inFlight.remove(cacheKey, execution);
+                    execution.complete(stored);
+                } else {
+                    try {
+                        stored = existing.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+                    } catch (ExecutionException | CancellationException e) {
+                        // The first execution failed and released the key; try to run it ourselves
+                        continue;
+                    } catch (TimeoutException e) {
+                        log.warn("Idempotent request still in progress - Key: {}", key);
+                        response.sendError(HttpStatus.CONFLICT.value(), "A request with this " + HEADER + " is still in progress");
+                        return;
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value());
+                        return;
+                    }
+                }
+            }
+
+            if (!Arrays.equals(stored.fingerprint(), fingerprint)) {
+                log.warn("Idempotency key reused with a different body - Key: {}", key);
+                response.sendError(HttpStatus.UNPROCESSABLE_ENTITY.value(),
+                        HEADER + " was already used for a different request");
+                return;
+            }
+            log.debug("Replaying stored response - Key: {}, Status: {}", key, stored.status());
+            stored.writeTo(response);
+            return;
+        }
+    }
+
+    private void execute(String cacheKey, CompletableFuture<StoredResponse> execution, byte[] fingerprint,
+                         HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+        try {
+            filterChain.doFilter(request, responseWrapper);
+        } catch (ServletException | IOException | RuntimeException | Error e) {
+            release(cacheKey, execution, e);
+            throw e;
+        }
+
+        if (responseWrapper.getStatus() >= HttpStatus.INTERNAL_SERVER_ERROR.value()) {
+            release(cacheKey, execution, new IllegalStateException("Status " + responseWrapper.getStatus()));
+        } else {
+            StoredResponse stored = StoredResponse.of(responseWrapper, fingerprint);
+            // Stored before the key leaves the in-flight map, so a duplicate always finds one of them
+            responses.put(cacheKey, stored);
+            inFlight.remove(cacheKey, execution);
+            execution.complete(stored);
+        }
+        responseWrapper.copyBodyToResponse();
+    }
+
+    private void release(String cacheKey, CompletableFuture<StoredResponse> execution, Throwable cause) {
+        inFlight.remove(cacheKey, execution);
+        execution.completeExceptionally(cause);
+    }
+
+    // Hashed so credentials are not kept in memory as cache keys
+    private static String caller(HttpServletRequest request) {
+        String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authorization != null) {
+            return "auth:" + HexFormat.of().formatHex(sha256(authorization.getBytes(StandardCharsets.UTF_8)));
+        }
+        return "addr:" + request.getRemoteAddr();
+    }
+
+    private static byte[] sha256(byte[] body) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(body);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * A method and an Ant-style path pattern, e.g. {@code PATCH /api/exhibitions/*}{@code /customers/*}.
+     */
+    public record Endpoint(String method, String pathPattern) {
+    }
+
+    record StoredResponse(int status, Map<String, List<String>> headers, byte[] body, byte[] fingerprint) {
+        static StoredResponse of(ContentCachingResponseWrapper response, byte[] fingerprint) {
+            Map<String, List<String>> headers = new LinkedHashMap<>();
+            for (String name : response.getHeaderNames()) {
+                // The request ID belongs to the original request, the replay gets its own
+                if (!name.equalsIgnoreCase(RequestIdFilter.HEADER) && !name.equalsIgnoreCase("Content-Type")
+                        && !name.equalsIgnoreCase("Content-Length")) {
+                    headers.put(name, new ArrayList<>(response.getHeaders(name)));
+                }
+            }
+            if (response.getContentType() != null) {
+                headers.put("Content-Type", List.of(response.getContentType()));
+            }
+            return new StoredResponse(response.getStatus(), headers, response.getContentAsByteArray(), fingerprint);
+        }
+
+        void writeTo(HttpServletResponse response) throws IOException {
+            response.setStatus(status);
+            headers.forEach((name, values) -> values.forEach(value -> response.addHeader(name, value)));
+            response.setHeader(REPLAYED_HEADER, "true");
+            response.setContentLength(body.length);
+            response.getOutputStream().write(body);
+        }
+    }
+
+    /**
+     * Reads the body up front so it can be fingerprinted and still be read by the controller.
+     */
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            this.body = request.getInputStream().readAllBytes();
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return in.read(buffer, offset, length);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding == null ? StandardCharsets.UTF_8 : Charset.forName(encoding)));
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package dk.au.customerservice.config;
+
+import dk.au.customerservice.model.Customer;
+import dk.au.customerservice.utils.SyntheticCustomerFactory;
+import dk.au.customerservice.utils.SyntheticCustomerFactory.SyntheticCustomer;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bulk-loads synthetic customers with credentials for performance work; enabled by the
+ * {@code synthetic-data} profile.
+ * <p>
+ * Rows are generated deterministically from {@code customer.synthetic.seed} and get IDs after the
+ * current highest one. On PostgreSQL they are streamed in with {@code COPY}; other databases get
+ * JDBC batches. The loader bypasses JPA and the change log. Afterwards {@code customer_seq} is
+ * moved past the new IDs. With {@code customer.synthetic.exit-when-done} the application shuts
+ * down once loading finishes, so the profile doubles as a command-line tool.
+ */
+@Component
+@Profile("synthetic-data")
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+@Slf4j
+public class SyntheticDataGenerator implements ApplicationRunner {
+    private static final int ALLOCATION_SIZE = 50;
+    private static final String COPY_CUSTOMERS_SQL =
+            "COPY customer (id, name, birth, adress, phone_number, version, username) FROM STDIN WITH (FORMAT csv)";
+    private static final String COPY_CREDENTIALS_SQL =
+            "COPY customer_credentials (customer_id, credential_key, credential_value) FROM STDIN WITH (FORMAT csv)";
+    private static final String INSERT_CUSTOMER_SQL =
+            "insert into customer (id, name, birth, adress, phone_number, version, username) values (?, ?, ?, ?, ?, 0, ?)";
+    private static final String INSERT_CREDENTIAL_SQL =
+            "insert into customer_credentials (customer_id, credential_key, credential_value) values (?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ConfigurableApplicationContext applicationContext;
+    private final long customers;
+    private final long seed;
+    private final int chunkSize;
+    private final String passwordHash;
+    private final boolean exitWhenDone;
+
+    public SyntheticDataGenerator(
+            JdbcTemplate jdbcTemplate,
+            ConfigurableApplicationContext applicationContext,
+            @Value("${customer.synthetic.customers:100000}") long customers,
+            @Value("${customer.synthetic.seed:42}") long seed,
+            @Value("${customer.synthetic.chunk-size:50000}") int chunkSize,
+            @Value("${customer.synthetic.password-hash}") String passwordHash,
+            @Value("${customer.synthetic.exit-when-done:false}") boolean exitWhenDone) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.applicationContext = applicationContext;
+        this.customers = customers;
+        this.seed = seed;
+        this.chunkSize = chunkSize;
+        this.passwordHash = passwordHash;
+        this.exitWhenDone = exitWhenDone;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long startedAt = System.nanoTime();
+        long firstId = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from customer", Long.class) + 1;
+        boolean postgres = "PostgreSQL".equals(jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName()));
+        log.info("Generating synthetic customers - Customers: {}, Seed: {}, FirstId: {}, Copy: {}",
+                customers, seed, firstId, postgres);
+
+        SyntheticCustomerFactory factory = new SyntheticCustomerFactory(seed, passwordHash);
+        for (long generated = 0; generated < customers; ) {
+            int size = (int) Math.min(chunkSize, customers - generated);
+            List<SyntheticCustomer> chunk = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                chunk.add(factory.next(firstId + generated + i));
+            }
+            if (postgres) {
+                copy(chunk);
+            } else {
+                insert(chunk);
+            }
+            generated += size;
+            log.info("Synthetic customer progress - Generated: {}", generated);
+        }
+
+        // IDs were assigned here, not by Hibernate; restart the pooled sequence past them
+        long lastId = firstId + customers - 1;
+        jdbcTemplate.execute("alter sequence customer_seq restart with " + (lastId + ALLOCATION_SIZE + 1));
+        log.info("Synthetic customers generated - Customers: {}, DurationMillis: {}",
+                customers, (System.nanoTime() - startedAt) / 1_000_000);
+
+        if (exitWhenDone) {
+            System.exit(SpringApplication.exit(applicationContext, () -> 0));
+        }
+    }
+
+    private void copy(List<SyntheticCustomer> chunk) {
+        StringBuilder customerRows = new StringBuilder(chunk.size() * 96);
+        StringBuilder credentialRows = new StringBuilder(chunk.size() * 128);
+        for (SyntheticCustomer customer : chunk) {
+            customerRows.append(customer.id()).append(',')
+                    .append(csv(customer.name())).append(',')
+                    .append(csv(customer.birth())).append(',')
+                    .append(csv(customer.adress())).append(',')
+                    .append(csv(customer.phoneNumber())).append(",0,")
+                    .append(csv(customer.username())).append('\n');
+            credentialRows.append(customer.id()).append(',').append(Customer.USERNAME_KEY).append(',')
+                    .append(csv(customer.username())).append('\n');
+            credentialRows.append(customer.id()).append(",password,")
+                    .append(csv(customer.passwordHash())).append('\n');
+        }
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            copyIn(connection, COPY_CUSTOMERS_SQL, customerRows);
+            copyIn(connection, COPY_CREDENTIALS_SQL, credentialRows);
+            return null;
+        });
+    }
+
+    private static void copyIn(Connection connection, String sql, CharSequence rows) throws SQLException {
+        try {
+            connection.unwrap(PGConnection.class).getCopyAPI().copyIn(sql, new StringReader(rows.toString()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void insert(List<SyntheticCustomer> chunk) {
+        jdbcTemplate.batchUpdate(INSERT_CUSTOMER_SQL, chunk, chunk.size(), (ps, customer) -> {
+            ps.setLong(1, customer.id());
+            ps.setString(2, customer.name());
+            ps.setString(3, customer.birth());
+            ps.setString(4, customer.adress());
+            ps.setString(5, customer.phoneNumber());
+            ps.setString(6, customer.username());
+        });
+        List<CredentialRow> credentials = new ArrayList<>(chunk.size() * 2);
+        for (SyntheticCustomer customer : chunk) {
+            credentials.add(new CredentialRow(customer.id(), Customer.USERNAME_KEY, customer.username()));
+            credentials.add(new CredentialRow(customer.id(), "password", customer.passwordHash()));
+        }
+        jdbcTemplate.batchUpdate(INSERT_CREDENTIAL_SQL, credentials, credentials.size(), (ps, row) -> {
+            ps.setLong(1, row.customerId());
+            ps.setString(2, row.key());
+            ps.setString(3, row.value());
+        });
+    }
+
+    private static String csv(String value) {
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private record CredentialRow(long customerId, String key, String value) {
+    }
+}
@@ -0,0 +1,84 @@
+package dk.au.customerservice.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dk.au.customerservice.service.CustomerChangeFeed;
+import dk.au.customerservice.service.CustomerService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+@RestController
+@RequestMapping("/api/customers")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Customer Management", description = "APIs for managing customer information")
+public class CustomerChangeController {
+    static final String CHANGE_OFFSET_HEADER = "X-Change-Offset";
+
+    private final CustomerChangeFeed customerChangeFeed;
+    private final CustomerService customerService;
+    private final ObjectMapper objectMapper;
+
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Follow customer changes",
+            description = "Server-sent events for customer creates, credential updates and deletes. Each event's id is its offset; "
+                    + "resume after an offset with 'after' or the Last-Event-ID header. Without either, only new changes are sent")
+    public ResponseEntity<SseEmitter> followChanges(
+            @RequestParam(required = false) Long after,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        Long offset = after;
+        if (offset == null && lastEventId != null) {
+            try {
+                offset = Long.parseLong(lastEventId.trim());
+            } catch (NumberFormatException e) {
+                log.warn("Ignoring malformed Last-Event-ID: {}", lastEventId);
+                return ResponseEntity.badRequest().build();
+            }
+        }
+        log.info("Following customer changes - After: {}", offset);
+        return ResponseEntity.ok(customerChangeFeed.subscribe(offset));
+    }
+
+    @GetMapping(value = "/usernames", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Stream all usernames",
+            description = "Returns the ID and username of every customer that has one, as a JSON array written incrementally, "
+                    + "and no other customer data. The " + CHANGE_OFFSET_HEADER + " header carries the change feed offset the "
+                    + "list is at least as new as; follow the feed after it to keep a copy of the list current")
+    public ResponseEntity<StreamingResponseBody> streamUsernames() {
+        // Read before the usernames, so no change between the two can be missed
+        long offset = customerChangeFeed.latestOffset();
+        log.info("Streaming customer usernames - ChangeOffset: {}", offset);
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+                generator.writeStartArray();
+                customerService.forEachUsername(username -> {
+                    try {
+                        generator.writeObject(username);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            }
+            log.info("Finished streaming customer usernames");
+        };
+        return ResponseEntity.ok()
+                .header(CHANGE_OFFSET_HEADER, String.valueOf(offset))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+}
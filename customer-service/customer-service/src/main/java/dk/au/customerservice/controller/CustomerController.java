@@ -1,17 +1,33 @@
 package dk.au.customerservice.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dk.au.customerservice.dto.CustomerCredentialViewDTO;
 import dk.au.customerservice.dto.CustomerDTO;
+import dk.au.customerservice.dto.CustomerImportResultDTO;
 import dk.au.customerservice.dto.CredentialUpdateRequest;
+import dk.au.customerservice.dto.VersionedCustomerDTO;
 import dk.au.customerservice.model.Customer;
+import dk.au.customerservice.service.CustomerImportService;
 import dk.au.customerservice.service.CustomerService;
 import dk.au.customerservice.utils.CustomerMapper;
+import dk.au.customerservice.utils.ETags;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -22,35 +38,116 @@ import java.util.stream.Collectors;
 @Slf4j
 @Tag(name = "Customer Management", description = "APIs for managing customer information")
 public class CustomerController {
+    static final String NEXT_AFTER_HEADER = "X-Next-After";
+    static final int DEFAULT_PAGE_SIZE = 100;
+    static final int MAX_PAGE_SIZE = 1000;
+
     private final CustomerService customerService;
     private final CustomerMapper customerMapper;
+    private final ObjectMapper objectMapper;
+    private final CustomerImportService customerImportService;
 
     @GetMapping
-    @Operation(summary = "Get all customers")
-    public ResponseEntity<List<CustomerDTO>> getAllCustomers() {
-        log.info("Getting all customers");
-        List<CustomerDTO> customers = customerService.getAllCustomers()
-                .stream()
+    @Operation(summary = "Get all customers",
+            description = "Without parameters returns every customer. With 'after' and/or 'limit' returns one keyset page "
+                    + "ordered by ID; the " + NEXT_AFTER_HEADER + " header carries the 'after' value of the next page")
+    public ResponseEntity<List<CustomerDTO>> getAllCustomers(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        if (after == null && limit == null) {
+            log.info("Getting all customers");
+            List<CustomerDTO> customers = customerService.getAllCustomers()
+                    .stream()
+                    .map(customerMapper::toDTO)
+                    .collect(Collectors.toList());
+            log.info("Retrieved {} customers", customers.size());
+            return ResponseEntity.ok(customers);
+        }
+
+        int pageSize = limit != null ? Math.min(Math.max(limit, 1), MAX_PAGE_SIZE) : DEFAULT_PAGE_SIZE;
+        log.info("Getting customers page - After: {}, Limit: {}", after, pageSize);
+        List<Customer> page = customerService.getCustomersPage(after, pageSize);
+        List<CustomerDTO> customers = page.stream()
                 .map(customerMapper::toDTO)
                 .collect(Collectors.toList());
         log.info("Retrieved {} customers", customers.size());
-        return ResponseEntity.ok(customers);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.size() == pageSize) {
+            // A full page means there may be more; the client passes this back as 'after'
+            response.header(NEXT_AFTER_HEADER, String.valueOf(page.get(page.size() - 1).getId()));
+        }
+        return response.body(customers);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Stream all customers",
+            description = "Returns every customer as a JSON array written incrementally while reading from the database, "
+                    + "so memory use does not depend on the number of customers")
+    public ResponseEntity<StreamingResponseBody> streamAllCustomers() {
+        log.info("Streaming all customers");
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+                generator.writeStartArray();
+                customerService.forEachCustomer(customer -> {
+                    try {
+                        generator.writeObject(customerMapper.toDTO(customer));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            }
+            log.info("Finished streaming customers");
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Get customer by ID")
-    public ResponseEntity<CustomerDTO> getCustomerById(@PathVariable Long id) {
+    public ResponseEntity<CustomerDTO> getCustomerById(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.info("Getting customer by ID: {}", id);
-        Optional<Customer> customer = customerService.getCustomerById(id);
+        Optional<VersionedCustomerDTO> customer = customerService.getCustomerById(id);
         if (customer.isPresent()) {
-            log.info("Customer found: {}", customer.get().getName());
-            return ResponseEntity.ok(customerMapper.toDTO(customer.get()));
+            String eTag = ETags.of(customer.get().version());
+            if (ETags.matchesAny(ifNoneMatch, eTag)) {
+                log.debug("Customer {} not modified", id);
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+            }
+            log.info("Customer found: {}", customer.get().customer().getName());
+            return ResponseEntity.ok().eTag(eTag).body(customer.get().customer());
         } else {
             log.warn("Customer with ID {} not found", id);
             return ResponseEntity.notFound().build();
         }
     }
 
+    @GetMapping("/by-username/{username}")
+    @Operation(summary = "Get customer by username")
+    public ResponseEntity<CustomerDTO> getCustomerByUsername(@PathVariable String username) {
+        log.info("Getting customer by username: {}", username);
+        return customerService.getCustomerByUsername(username)
+                .map(customer -> ResponseEntity.ok(customerMapper.toDTO(customer)))
+                .orElseGet(() -> {
+                    log.warn("Customer with username {} not found", username);
+                    return ResponseEntity.notFound().build();
+                });
+    }
+
+    @GetMapping("/{id}/credential-view")
+    @Operation(summary = "Get a customer's credential view", description = "Returns only the ID, name, username and stored password hash of a customer")
+    public ResponseEntity<CustomerCredentialViewDTO> getCustomerCredentialView(@PathVariable Long id) {
+        log.debug("Getting credential view for customer ID: {}", id);
+        return customerService.getCustomerCredentialView(id)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> {
+                    log.warn("Customer with ID {} not found for credential view", id);
+                    return ResponseEntity.notFound().build();
+                });
+    }
+
     @PostMapping
     @Operation(summary = "Create a new customer")
     public ResponseEntity<CustomerDTO> createCustomer(@RequestBody CustomerDTO customerDTO) {
@@ -61,6 +158,43 @@ public class CustomerController {
         return ResponseEntity.ok(customerMapper.toDTO(created));
     }
 
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Import customers from JSON", description = "Creates all customers in a JSON array in batched inserts; IDs in the payload are ignored")
+    public ResponseEntity<CustomerImportResultDTO> importCustomersJson(InputStream body) {
+        log.info("Importing customers from JSON");
+        return importCustomers(() -> customerImportService.importJson(body));
+    }
+
+    @PostMapping(value = "/import", consumes = "text/csv")
+    @Operation(summary = "Import customers from CSV", description = "Creates one customer per CSV row in batched inserts. The header row names the columns: name, birth, adress, phoneNumber, username, password")
+    public ResponseEntity<CustomerImportResultDTO> importCustomersCsv(InputStream body) {
+        log.info("Importing customers from CSV");
+        return importCustomers(() -> customerImportService.importCsv(body));
+    }
+
+    private ResponseEntity<CustomerImportResultDTO> importCustomers(CustomerImport customerImport) {
+        try {
+            CustomerImportResultDTO result = customerImport.run();
+            log.info("Imported {} customers in {} ms", result.getImported(), result.getDurationMillis());
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            log.warn("Customer import rejected: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("Customer import aborted, request body could not be read: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (DataIntegrityViolationException e) {
+            // The import runs in one transaction, so a duplicate username rolls back the whole file
+            log.warn("Customer import rolled back, username conflict");
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    @FunctionalInterface
+    private interface CustomerImport {
+        CustomerImportResultDTO run() throws IOException;
+    }
+
     @DeleteMapping("/{id}")
     @Operation(summary = "Delete a customer")
     public ResponseEntity<Void> deleteCustomer(@PathVariable Long id) {
@@ -71,19 +205,38 @@ public class CustomerController {
     }
 
     @PatchMapping("/{id}/credentials")
-    @Operation(summary = "Update customer credentials", description = "Updates the credentials for a specific customer")
+    @Operation(summary = "Update customer credentials", description = "Updates the credentials for a specific customer. With If-Match the update only applies to that version of the customer")
     public ResponseEntity<CustomerDTO> updateCustomerCredentials(
             @PathVariable Long id,
-            @RequestBody CredentialUpdateRequest request) {
+            @RequestBody CredentialUpdateRequest request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.info("Updating credentials for customer ID: {}", id);
-        log.debug("Credential update request: {}", request);
         log.debug("New credentials keys: {}", request.getCredentials() != null ? request.getCredentials().keySet() : "null");
         
-        Optional<Customer> updatedCustomer = customerService.updateCustomerCredentials(id, request.getCredentials());
-        
+        Long expectedVersion;
+        try {
+            expectedVersion = ETags.expectedVersion(ifMatch);
+        } catch (IllegalArgumentException e) {
+            log.warn("Malformed If-Match header for customer ID {}: {}", id, ifMatch);
+            return ResponseEntity.badRequest().build();
+        }
+
+        Optional<Customer> updatedCustomer;
+        try {
+            updatedCustomer = customerService.updateCustomerCredentials(id, request.getCredentials(), expectedVersion);
+        } catch (OptimisticLockingFailureException e) {
+            log.warn("Precondition failed for credential update of customer ID {}: {}", id, e.getMessage());
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Username already taken, rejecting credential update for customer ID: {}", id);
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+
         if (updatedCustomer.isPresent()) {
             log.info("Customer credentials updated successfully: {}", updatedCustomer.get().getName());
-            return ResponseEntity.ok(customerMapper.toDTO(updatedCustomer.get()));
+            return ResponseEntity.ok()
+                    .eTag(ETags.of(updatedCustomer.get().getVersion()))
+                    .body(customerMapper.toDTO(updatedCustomer.get()));
         } else {
             log.warn("Customer with ID {} not found for credential update", id);
             return ResponseEntity.notFound().build();
@@ -0,0 +1,57 @@
+package dk.au.customerservice.controller;
+
+import dk.au.customerservice.dto.CredentialBatchUpdateItem;
+import dk.au.customerservice.dto.CredentialBatchUpdateResultDTO;
+import dk.au.customerservice.service.CustomerCredentialBatchService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/customers")
+@Slf4j
+@Tag(name = "Customer Management", description = "APIs for managing customer information")
+public class CustomerCredentialBatchController {
+    private final CustomerCredentialBatchService customerCredentialBatchService;
+    private final int maxBatchSize;
+
+    public CustomerCredentialBatchController(
+            CustomerCredentialBatchService customerCredentialBatchService,
+            @Value("${customer.credentials.batch.max-size:10000}") int maxBatchSize) {
+        this.customerCredentialBatchService = customerCredentialBatchService;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    @PatchMapping("/credentials")
+    @Operation(summary = "Update credentials of many customers",
+            description = "Replaces the credentials of every listed customer in one transaction and returns one result per item, in request order")
+    public ResponseEntity<List<CredentialBatchUpdateResultDTO>> updateCredentialsBatch(
+            @RequestBody List<CredentialBatchUpdateItem> items) {
+        if (items == null || items.isEmpty()) {
+            log.warn("Empty batch credential update");
+            return ResponseEntity.badRequest().build();
+        }
+        if (items.size() > maxBatchSize) {
+            log.warn("Batch credential update too large - Items: {}, Max: {}", items.size(), maxBatchSize);
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+        }
+
+        try {
+            return ResponseEntity.ok(customerCredentialBatchService.updateCredentials(items));
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent update claimed one of the usernames after the batch checked it
+            log.warn("Batch credential update rolled back, username conflict - Items: {}", items.size());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package dk.au.customerservice.controller;
+
+import dk.au.customerservice.dto.CustomerSearchResultDTO;
+import dk.au.customerservice.service.CustomerSearch;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/customers")
+@Slf4j
+@Tag(name = "Customer Management", description = "APIs for managing customer information")
+public class CustomerSearchController {
+    private final CustomerSearch customerSearch;
+    private final int maxPageSize;
+    private final int maxPage;
+
+    public CustomerSearchController(
+            CustomerSearch customerSearch,
+            @Value("${customer.search.max-page-size:100}") int maxPageSize,
+            @Value("${customer.search.max-page:1000}") int maxPage) {
+        this.customerSearch = customerSearch;
+        this.maxPageSize = maxPageSize;
+        this.maxPage = maxPage;
+    }
+
+    @GetMapping("/search")
+    @Operation(summary = "Search customers", description = "Ranked prefix, substring and fuzzy search over customer names and phone numbers")
+    public ResponseEntity<List<CustomerSearchResultDTO>> searchCustomers(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        // Deep pages cost a scan of every earlier page, so they are refused rather than served
+        if (q.isBlank() || page < 0 || page > maxPage || size < 1) {
+            log.warn("Rejected customer search - Query: '{}', Page: {}, Size: {}", q, page, size);
+            return ResponseEntity.badRequest().build();
+        }
+
+        int pageSize = Math.min(size, maxPageSize);
+        log.debug("Searching customers - Query: '{}', Page: {}, Size: {}", q, page, pageSize);
+        List<CustomerSearchResultDTO> results = customerSearch.search(q, page, pageSize);
+        log.debug("Customer search returned {} results", results.size());
+        return ResponseEntity.ok(results);
+    }
+}
@@ -0,0 +1,23 @@
+package dk.au.customerservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Credential replacement for one customer in a batch update")
+public class CredentialBatchUpdateItem {
+    @Schema(description = "ID of the customer", example = "1")
+    private Long customerId;
+
+    @Schema(description = "New credentials; replace the customer's current credentials", example = "{\"username\": \"new.username\", \"password\": \"newhashedpassword\"}")
+    private Map<String, String> credentials;
+
+    @Schema(description = "If set, the update only applies to this version of the customer", example = "3")
+    private Long version;
+}
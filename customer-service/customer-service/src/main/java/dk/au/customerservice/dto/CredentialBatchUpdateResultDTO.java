@@ -0,0 +1,36 @@
+package dk.au.customerservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Outcome of the credential update for a single customer in a batch")
+public class CredentialBatchUpdateResultDTO {
+    public enum Status { UPDATED, NOT_FOUND, VERSION_MISMATCH, USERNAME_TAKEN, INVALID }
+
+    @Schema(description = "ID of the customer", example = "1")
+    private Long customerId;
+
+    @Schema(description = "Outcome for this customer", example = "UPDATED")
+    private Status status;
+
+    @Schema(description = "Version of the customer after the update", example = "4")
+    private Long version;
+
+    @Schema(description = "Reason the customer was not updated")
+    private String error;
+
+    public static CredentialBatchUpdateResultDTO updated(Long customerId, Long version) {
+        return new CredentialBatchUpdateResultDTO(customerId, Status.UPDATED, version, null);
+    }
+
+    public static CredentialBatchUpdateResultDTO failed(Long customerId, Status status, String error) {
+        return new CredentialBatchUpdateResultDTO(customerId, status, null, error);
+    }
+}
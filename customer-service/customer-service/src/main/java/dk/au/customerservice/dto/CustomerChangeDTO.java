@@ -0,0 +1,30 @@
+package dk.au.customerservice.dto;
+
+import dk.au.customerservice.model.CustomerChange;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "A change to a customer, as published on the change feed")
+public class CustomerChangeDTO {
+    @Schema(description = "Position in the change feed; pass it back as 'after' or Last-Event-ID to resume", example = "1042")
+    private Long offset;
+
+    @Schema(description = "ID of the changed customer", example = "1")
+    private Long customerId;
+
+    @Schema(description = "Kind of change", example = "CREDENTIALS_UPDATED")
+    private CustomerChange.Type type;
+
+    @Schema(description = "Version of the customer after the change; absent for deletions", example = "3")
+    private Long customerVersion;
+
+    @Schema(description = "When the change was recorded")
+    private Instant occurredAt;
+}
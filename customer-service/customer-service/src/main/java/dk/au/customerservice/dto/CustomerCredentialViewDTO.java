@@ -0,0 +1,27 @@
+package dk.au.customerservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Slim view of a customer's credentials, used for password verification")
+public class CustomerCredentialViewDTO {
+    @Schema(description = "ID of the customer")
+    private Long id;
+
+    @Schema(description = "Name of the customer", example = "Max Mustermann")
+    private String name;
+
+    @Schema(description = "Username of the customer", example = "max.mustermann")
+    private String username;
+
+    @Schema(description = "Stored password hash", example = "$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy")
+    private String passwordHash;
+
+    @Schema(description = "Version of the customer; send it as If-Match to update these credentials only if unchanged", example = "3")
+    private Long version;
+}
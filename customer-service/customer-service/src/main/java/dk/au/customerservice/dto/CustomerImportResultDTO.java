@@ -0,0 +1,18 @@
+package dk.au.customerservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Outcome of a bulk customer import")
+public class CustomerImportResultDTO {
+    @Schema(description = "Number of customers imported", example = "100000")
+    private int imported;
+
+    @Schema(description = "Time spent importing in milliseconds", example = "4200")
+    private long durationMillis;
+}
@@ -0,0 +1,34 @@
+package dk.au.customerservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "A customer matching a search, without credentials")
+public class CustomerSearchResultDTO {
+    @Schema(description = "ID of the customer")
+    private Long id;
+
+    @Schema(description = "Name of the customer", example = "Max Mustermann")
+    private String name;
+
+    @Schema(description = "Phone number of the customer", example = "1234567")
+    private String phoneNumber;
+
+    @Schema(description = "Address of the customer", example = "Birk Centerpark 120")
+    private String adress;
+
+    @Schema(description = "Relevance; prefix matches rank above substring matches, which rank above fuzzy matches", example = "2.0")
+    private double score;
+
+    public CustomerSearchResultDTO(Long id, String name, String phoneNumber, String adress) {
+        this.id = id;
+        this.name = name;
+        this.phoneNumber = phoneNumber;
+        this.adress = adress;
+    }
+}
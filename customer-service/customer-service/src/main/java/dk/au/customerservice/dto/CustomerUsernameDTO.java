@@ -0,0 +1,18 @@
+package dk.au.customerservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "A customer's ID and username, without any other data")
+public class CustomerUsernameDTO {
+    @Schema(description = "ID of the customer")
+    private Long id;
+
+    @Schema(description = "Username of the customer", example = "max.mustermann")
+    private String username;
+}
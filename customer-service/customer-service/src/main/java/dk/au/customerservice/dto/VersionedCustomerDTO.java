@@ -0,0 +1,8 @@
+package dk.au.customerservice.dto;
+
+/**
+ * A customer together with the version its ETag is built from. This is what the customer cache
+ * holds, so the shared instance must not be modified.
+ */
+public record VersionedCustomerDTO(CustomerDTO customer, Long version) {
+}
@@ -1,27 +1,46 @@
 package dk.au.customerservice.model;
 
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
 
 import java.util.HashMap;
 import java.util.Map;
 
 @Entity
+@Table(name = "customer", uniqueConstraints = @UniqueConstraint(name = "uk_customer_username", columnNames = "username"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Customer {
+    public static final String USERNAME_KEY = "username";
+
+    // A pooled sequence hands out IDs in blocks of 50 without a round trip per insert, which
+    // also lets Hibernate batch the inserts (IDENTITY forces one INSERT at a time)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "customer_seq")
+    @SequenceGenerator(name = "customer_seq", sequenceName = "customer_seq", allocationSize = 50)
     private Long id;
     private String name;
     private String birth;
     private String adress;
     private String phoneNumber;
-    
+
+    // Optimistic lock and ETag source; incremented on every update
+    @Version
+    private Long version;
+
+    // Mirrors credentials["username"] so logins can use an indexed point lookup
+    @Setter(AccessLevel.NONE)
+    private String username;
+
+    // Lazily loaded credentials of up to 100 customers are initialized with one query
     @ElementCollection
+    @BatchSize(size = 100)
     @CollectionTable(name = "customer_credentials", 
                     joinColumns = @JoinColumn(name = "customer_id"))
     @MapKeyColumn(name = "credential_key")
@@ -42,5 +61,18 @@ public class Customer {
         this.adress = adress;
         this.phoneNumber = phoneNumber;
         this.credentials = credentials != null ? credentials : new HashMap<>();
+        this.username = this.credentials.get(USERNAME_KEY);
+    }
+
+    public void setCredentials(Map<String, String> credentials) {
+        this.credentials = credentials;
+        syncUsername();
+    }
+
+    // Also catches in-place changes to the credentials map before they are written
+    @PrePersist
+    @PreUpdate
+    void syncUsername() {
+        this.username = credentials != null ? credentials.get(USERNAME_KEY) : null;
     }
 } 
\ No newline at end of file
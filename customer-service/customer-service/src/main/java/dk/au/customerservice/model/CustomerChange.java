@@ -0,0 +1,56 @@
+package dk.au.customerservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * One entry of the customer change log. Its position in the change feed is {@link #feedOffset},
+ * assigned in commit order by {@link dk.au.customerservice.service.CustomerChangeLog}.
+ */
+@Entity
+@Table(name = "customer_change", indexes = @Index(name = "idx_customer_change_feed_offset",
+        columnList = "feed_offset", unique = true))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerChange {
+    public enum Type {
+        CREATED,
+        CREDENTIALS_UPDATED,
+        DELETED
+    }
+
+    // Row identity only; a pooled sequence keeps bulk imports batchable but does not follow commit order
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "customer_change_seq")
+    @SequenceGenerator(name = "customer_change_seq", sequenceName = "customer_change_seq", allocationSize = 50)
+    private Long id;
+
+    // Null until the writing transaction is about to commit
+    @Column(name = "feed_offset")
+    private Long feedOffset;
+
+    @Column(nullable = false)
+    private Long customerId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private Type type;
+
+    // Version of the customer after the change; null for deletions
+    private Long customerVersion;
+
+    @Column(nullable = false)
+    private Instant occurredAt;
+
+    public CustomerChange(Long customerId, Type type, Long customerVersion, Instant occurredAt) {
+        this.customerId = customerId;
+        this.type = type;
+        this.customerVersion = customerVersion;
+        this.occurredAt = occurredAt;
+    }
+}
@@ -0,0 +1,19 @@
+package dk.au.customerservice.repo;
+
+import dk.au.customerservice.model.CustomerChange;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface CustomerChangeRepo extends JpaRepository<CustomerChange, Long> {
+
+    // Offsets become visible in commit order, so nothing below the last one read can still appear
+    List<CustomerChange> findByFeedOffsetGreaterThanOrderByFeedOffsetAsc(Long after, Limit limit);
+
+    @Query("select coalesce(max(c.feedOffset), 0) from CustomerChange c")
+    long findLatestOffset();
+}
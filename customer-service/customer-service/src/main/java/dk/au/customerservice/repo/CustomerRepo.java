@@ -1,9 +1,73 @@
 package dk.au.customerservice.repo;
 
+import dk.au.customerservice.dto.CustomerCredentialViewDTO;
+import dk.au.customerservice.dto.CustomerSearchResultDTO;
+import dk.au.customerservice.dto.CustomerUsernameDTO;
 import dk.au.customerservice.model.Customer;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 @Repository
 public interface CustomerRepo extends JpaRepository<Customer, Long> {
-} 
\ No newline at end of file
+
+    @Override
+    @EntityGraph(attributePaths = "credentials")
+    List<Customer> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = "credentials")
+    Optional<Customer> findById(Long id);
+
+    // Point lookup on the unique username index
+    @EntityGraph(attributePaths = "credentials")
+    Optional<Customer> findByUsername(String username);
+
+    // Keyset page: seeks past the last seen ID instead of counting an offset. Credentials are not
+    // join fetched here, since a limit over a collection fetch is applied in memory; they are
+    // batch loaded through @BatchSize instead.
+    List<Customer> findByIdGreaterThanOrderByIdAsc(Long after, Limit limit);
+
+    // Cursor over all customers; must be consumed inside a read-only transaction and closed.
+    // Rows arrive ordered by customer, so the credentials fetch join is assembled per customer.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select c from Customer c left join fetch c.credentials order by c.id")
+    Stream<Customer> streamAll();
+
+    // Username column only, for services that keep an index of taken usernames
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new dk.au.customerservice.dto.CustomerUsernameDTO(c.id, c.username) from Customer c " +
+            "where c.username is not null order by c.id")
+    Stream<CustomerUsernameDTO> streamUsernames();
+
+    // Searchable columns only, for ranking in memory when the database has no trigram support
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new dk.au.customerservice.dto.CustomerSearchResultDTO(c.id, c.name, c.phoneNumber, c.adress) from Customer c")
+    Stream<CustomerSearchResultDTO> streamSearchCandidates();
+
+    // Projects straight into the DTO: no entity is managed and address, birth and phone are never read
+    @Query("select new dk.au.customerservice.dto.CustomerCredentialViewDTO(c.id, c.name, c.username, value(p), c.version) " +
+            "from Customer c " +
+            "left join c.credentials p on key(p) = 'password' " +
+            "where c.id = :id")
+    Optional<CustomerCredentialViewDTO> findCredentialViewById(@Param("id") Long id);
+}
@@ -0,0 +1,52 @@
+package dk.au.customerservice.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Removes customers from the lookup caches. Inside a transaction the eviction waits for the
+ * commit: evicting earlier would let a concurrent reader load the old row and cache it again
+ * for the full TTL.
+ */
+@Component
+@RequiredArgsConstructor
+public class CustomerCacheEvictor {
+    private final CacheManager cacheManager;
+
+    public void evictAfterCommit(Long customerId) {
+        evictAfterCommit(List.of(customerId));
+    }
+
+    public void evictAfterCommit(Collection<Long> customerIds) {
+        if (customerIds.isEmpty()) {
+            return;
+        }
+        List<Long> ids = List.copyOf(customerIds);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(ids);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict(ids);
+            }
+        });
+    }
+
+    private void evict(List<Long> customerIds) {
+        for (String cacheName : List.of(CustomerService.CUSTOMER_CACHE, CustomerService.CREDENTIAL_VIEW_CACHE)) {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache != null) {
+                customerIds.forEach(cache::evict);
+            }
+        }
+    }
+}
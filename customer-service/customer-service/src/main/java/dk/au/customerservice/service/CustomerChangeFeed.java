@@ -0,0 +1,166 @@
+package dk.au.customerservice.service;
+
+import dk.au.customerservice.dto.CustomerChangeDTO;
+import dk.au.customerservice.model.CustomerChange;
+import dk.au.customerservice.repo.CustomerChangeRepo;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Streams the customer change log to server-sent event subscribers.
+ * <p>
+ * Each subscriber has its own offset and is caught up from the log on a fixed poll interval,
+ * so replaying from an old offset and following new changes use the same path. Every event
+ * carries its offset as the SSE id, which lets a reconnecting client resume with
+ * {@code Last-Event-ID}.
+ * <p>
+ * Offsets are assigned in commit order by {@link CustomerChangeLog}, so once an offset is visible
+ * no lower one can still appear and a subscriber never skips an entry.
+ * <p>
+ * The poller only hands out work. Each subscriber is caught up on its own virtual thread, one
+ * catch-up at a time, so a slow client delays only its own events.
+ */
+@Service
+@Slf4j
+public class CustomerChangeFeed {
+    private final CustomerChangeRepo customerChangeRepo;
+    private final long emitterTimeoutMillis;
+    private final int pageSize;
+    private final Duration heartbeatInterval;
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+
+    public CustomerChangeFeed(
+            CustomerChangeRepo customerChangeRepo,
+            @Value("${customer.changes.emitter-timeout:30m}") Duration emitterTimeout,
+            @Value("${customer.changes.page-size:500}") int pageSize,
+            @Value("${customer.changes.heartbeat-interval:15s}") Duration heartbeatInterval) {
+        this.customerChangeRepo = customerChangeRepo;
+        this.emitterTimeoutMillis = emitterTimeout.toMillis();
+        this.pageSize = pageSize;
+        this.heartbeatInterval = heartbeatInterval;
+    }
+
+    /**
+     * Subscribes to changes after {@code after}, or to new changes only when it is null.
+     */
+    public SseEmitter subscribe(Long after) {
+        long offset = after != null ? after : latestOffset();
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+        Subscription subscription = new Subscription(emitter, offset);
+        emitter.onCompletion(() -> subscriptions.remove(subscription));
+        emitter.onTimeout(() -> subscriptions.remove(subscription));
+        emitter.onError(error -> subscriptions.remove(subscription));
+        subscriptions.add(subscription);
+        log.info("Change feed subscription opened - Offset: {}, Subscribers: {}", offset, subscriptions.size());
+        return emitter;
+    }
+
+    /**
+     * Offset of the newest committed change. Everything read after this call reflects at least
+     * the changes up to it, so following the feed from it misses nothing.
+     */
+    public long latestOffset() {
+        return customerChangeRepo.findLatestOffset();
+    }
+
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    @Scheduled(fixedDelayString = "${customer.changes.poll-interval-millis:500}")
+    public void publish() {
+        for (Subscription subscription : subscriptions) {
+            // A subscriber still busy with its previous catch-up is skipped this round
+            if (subscription.busy.compareAndSet(false, true)) {
+                senders.execute(() -> {
+                    try {
+                        deliver(subscription);
+                    } finally {
+                        subscription.busy.set(false);
+                    }
+                });
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        senders.shutdownNow();
+    }
+
+    private void deliver(Subscription subscription) {
+        try {
+            Instant now = Instant.now();
+            if (!catchUp(subscription) && subscription.lastSentAt.isBefore(now.minus(heartbeatInterval))) {
+                // Lets idle clients and proxies tell a quiet feed from a dead connection
+                subscription.emitter.send(SseEmitter.event().comment("heartbeat"));
+                subscription.lastSentAt = now;
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client went away; the emitter callbacks may not fire for a broken connection
+            log.debug("Change feed subscriber dropped at offset {}: {}", subscription.offset, e.getMessage());
+            subscriptions.remove(subscription);
+            subscription.emitter.completeWithError(e);
+        } catch (RuntimeException e) {
+            // Typically the database; the subscriber keeps its offset and is retried next round
+            log.warn("Change feed catch-up failed at offset {}: {}", subscription.offset, e.getMessage());
+        }
+    }
+
+    // Returns true when at least one change was sent
+    private boolean catchUp(Subscription subscription) throws IOException {
+        boolean sent = false;
+        List<CustomerChange> changes;
+        do {
+            changes = customerChangeRepo.findByFeedOffsetGreaterThanOrderByFeedOffsetAsc(
+                    subscription.offset, Limit.of(pageSize));
+            for (CustomerChange change : changes) {
+                subscription.emitter.send(SseEmitter.event()
+                        .id(String.valueOf(change.getFeedOffset()))
+                        .name(change.getType().name())
+                        .data(toDTO(change), MediaType.APPLICATION_JSON));
+                subscription.offset = change.getFeedOffset();
+                sent = true;
+            }
+        } while (changes.size() == pageSize);
+        if (sent) {
+            subscription.lastSentAt = Instant.now();
+        }
+        return sent;
+    }
+
+    private static CustomerChangeDTO toDTO(CustomerChange change) {
+        return new CustomerChangeDTO(change.getFeedOffset(), change.getCustomerId(), change.getType(),
+                change.getCustomerVersion(), change.getOccurredAt());
+    }
+
+    private static final class Subscription {
+        private final SseEmitter emitter;
+        // Set while a catch-up runs; offset and lastSentAt are only touched by that catch-up
+        private final AtomicBoolean busy = new AtomicBoolean();
+        private volatile long offset;
+        private volatile Instant lastSentAt = Instant.now();
+
+        private Subscription(SseEmitter emitter, long offset) {
+            this.emitter = emitter;
+            this.offset = offset;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package dk.au.customerservice.service;
+
+import dk.au.customerservice.model.Customer;
+import dk.au.customerservice.model.CustomerChange;
+import dk.au.customerservice.repo.CustomerChangeRepo;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Appends customer mutations to the durable change log read by {@link CustomerChangeFeed}.
+ * Must be called inside the transaction that makes the change, so an entry exists exactly
+ * when the change was committed.
+ * <p>
+ * Feed offsets are assigned just before commit from a single-row counter. The counter row stays
+ * locked until the transaction commits, so offsets become visible in the order they were
+ * assigned, without gaps, on any number of instances. The lock is only held between the final
+ * flush and the commit, which keeps long transactions such as bulk imports from blocking
+ * other writers.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CustomerChangeLog {
+    private static final String CREATE_COUNTER_SQL =
+            "create table if not exists customer_change_offset (id integer primary key, last_offset bigint not null)";
+    private static final String SEED_COUNTER_SQL =
+            "insert into customer_change_offset (id, last_offset) select 1, coalesce(max(feed_offset), 0) from customer_change";
+    // Entries written before offsets were assigned at commit keep their sequence ID as offset
+    private static final String BACKFILL_OFFSETS_SQL =
+            "update customer_change set feed_offset = id where feed_offset is null";
+    private static final String LOCK_COUNTER_SQL =
+            "select last_offset from customer_change_offset where id = 1 for update";
+    private static final String ADVANCE_COUNTER_SQL =
+            "update customer_change_offset set last_offset = ? where id = 1";
+    private static final String ASSIGN_OFFSET_SQL =
+            "update customer_change set feed_offset = ? where id = ?";
+
+    private final CustomerChangeRepo customerChangeRepo;
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Creates and seeds the offset counter. Runs while the context starts, before the web
+     * server accepts writes.
+     */
+    @PostConstruct
+    void initializeOffsetCounter() {
+        jdbcTemplate.execute(CREATE_COUNTER_SQL);
+        Integer counters = jdbcTemplate.queryForObject("select count(*) from customer_change_offset", Integer.class);
+        if (counters != null && counters > 0) {
+            return;
+        }
+        try {
+            int backfilled = jdbcTemplate.update(BACKFILL_OFFSETS_SQL);
+            jdbcTemplate.update(SEED_COUNTER_SQL);
+            log.info("Change feed offset counter created - Backfilled entries: {}", backfilled);
+        } catch (DuplicateKeyException e) {
+            log.debug("Change feed offset counter created by another instance");
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(CustomerChange.Type type, Customer customer) {
+        record(type, customer.getId(), customer.getVersion());
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(CustomerChange.Type type, Long customerId, Long customerVersion) {
+        append(new CustomerChange(customerId, type, customerVersion, Instant.now()));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDeleted(Long customerId) {
+        append(new CustomerChange(customerId, CustomerChange.Type.DELETED, null, Instant.now()));
+    }
+
+    private void append(CustomerChange change) {
+        CustomerChange saved = customerChangeRepo.save(change);
+        pendingEntries().add(saved.getId());
+    }
+
+    // Entry IDs written by the current transaction that still need an offset
+    @SuppressWarnings("unchecked")
+    private List<Long> pendingEntries() {
+        List<Long> pending = (List<Long>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            List<Long> entries = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, entries);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    assignOffsets(entries);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(CustomerChangeLog.this);
+                }
+            });
+            pending = entries;
+        }
+        return pending;
+    }
+
+    private void assignOffsets(List<Long> entryIds) {
+        // Everything else the transaction writes goes out first, so no statement runs while the
+        // counter is locked except the offset updates below
+        customerChangeRepo.flush();
+        Long lastOffset = jdbcTemplate.queryForObject(LOCK_COUNTER_SQL, Long.class);
+        if (lastOffset == null) {
+            throw new IllegalStateException("Change feed offset counter is missing");
+        }
+        List<Object[]> assignments = new ArrayList<>(entryIds.size());
+        for (int i = 0; i < entryIds.size(); i++) {
+            assignments.add(new Object[]{lastOffset + i + 1, entryIds.get(i)});
+        }
+        jdbcTemplate.batchUpdate(ASSIGN_OFFSET_SQL, assignments);
+        jdbcTemplate.update(ADVANCE_COUNTER_SQL, lastOffset + entryIds.size());
+    }
+}
@@ -0,0 +1,177 @@
+package dk.au.customerservice.service;
+
+import dk.au.customerservice.dto.CredentialBatchUpdateItem;
+import dk.au.customerservice.dto.CredentialBatchUpdateResultDTO;
+import dk.au.customerservice.dto.CredentialBatchUpdateResultDTO.Status;
+import dk.au.customerservice.model.Customer;
+import dk.au.customerservice.model.CustomerChange;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Replaces the credentials of many customers in one transaction.
+ * <p>
+ * Instead of loading and saving each customer, the affected rows are locked and read with a
+ * few {@code IN} queries. The changes are then written as JDBC batches: one version and
+ * username update per customer, and one row per credential. The old credential rows are deleted
+ * set-based. Every item gets its own status. Items that fail validation are skipped without
+ * affecting the rest of the batch.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CustomerCredentialBatchService {
+    // Upper bound for IN lists and for the statements sent in one JDBC batch
+    private static final int CHUNK_SIZE = 1000;
+
+    private static final String LOCK_SQL =
+            "select id, version from customer where id in (:ids) order by id for update";
+    private static final String USERNAME_OWNERS_SQL =
+            "select id, username from customer where username in (:usernames)";
+    private static final String UPDATE_CUSTOMER_SQL =
+            "update customer set username = ?, version = ? where id = ?";
+    private static final String DELETE_CREDENTIALS_SQL =
+            "delete from customer_credentials where customer_id in (:ids)";
+    private static final String INSERT_CREDENTIAL_SQL =
+            "insert into customer_credentials (customer_id, credential_key, credential_value) values (?, ?, ?)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final CustomerChangeLog customerChangeLog;
+    private final CustomerCacheEvictor customerCacheEvictor;
+
+    /**
+     * Applies every valid item and returns one result per item, in request order. A customer may
+     * appear only once per batch. A username already held by another customer is rejected, even
+     * if that customer gives it up in the same batch.
+     */
+    @Transactional
+    public List<CredentialBatchUpdateResultDTO> updateCredentials(List<CredentialBatchUpdateItem> items) {
+        CredentialBatchUpdateResultDTO[] results = new CredentialBatchUpdateResultDTO[items.size()];
+        Map<Long, Integer> indexById = new LinkedHashMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            CredentialBatchUpdateItem item = items.get(i);
+            if (item == null || item.getCustomerId() == null || item.getCredentials() == null) {
+                results[i] = CredentialBatchUpdateResultDTO.failed(item != null ? item.getCustomerId() : null,
+                        Status.INVALID, "customerId and credentials are required");
+            } else if (indexById.putIfAbsent(item.getCustomerId(), i) != null) {
+                results[i] = CredentialBatchUpdateResultDTO.failed(item.getCustomerId(),
+                        Status.INVALID, "Customer appears more than once in the batch");
+            }
+        }
+
+        Map<Long, Long> versions = lockCustomers(indexById.keySet());
+        Map<String, Long> usernameOwners = findUsernameOwners(indexById.values().stream()
+                .map(index -> items.get(index).getCredentials().get(Customer.USERNAME_KEY))
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList());
+
+        List<Update> updates = new ArrayList<>();
+        indexById.forEach((customerId, index) -> {
+            CredentialBatchUpdateItem item = items.get(index);
+            if (!versions.containsKey(customerId)) {
+                results[index] = CredentialBatchUpdateResultDTO.failed(customerId, Status.NOT_FOUND, "Customer not found");
+                return;
+            }
+            long currentVersion = Objects.requireNonNullElse(versions.get(customerId), 0L);
+            if (item.getVersion() != null && item.getVersion() != currentVersion) {
+                results[index] = CredentialBatchUpdateResultDTO.failed(customerId, Status.VERSION_MISMATCH,
+                        "Customer is at version " + currentVersion);
+                return;
+            }
+            String username = item.getCredentials().get(Customer.USERNAME_KEY);
+            if (username != null) {
+                Long owner = usernameOwners.putIfAbsent(username, customerId);
+                if (owner != null && !owner.equals(customerId)) {
+                    results[index] = CredentialBatchUpdateResultDTO.failed(customerId, Status.USERNAME_TAKEN,
+                            "Username already taken");
+                    return;
+                }
+            }
+            updates.add(new Update(customerId, username, currentVersion + 1, item.getCredentials()));
+            results[index] = CredentialBatchUpdateResultDTO.updated(customerId, currentVersion + 1);
+        });
+
+        write(updates);
+        updates.forEach(update -> customerChangeLog.record(
+                CustomerChange.Type.CREDENTIALS_UPDATED, update.customerId(), update.version()));
+        customerCacheEvictor.evictAfterCommit(updates.stream().map(Update::customerId).toList());
+
+        log.info("Batch credential update - Requested: {}, Updated: {}", items.size(), updates.size());
+        return Arrays.asList(results);
+    }
+
+    // Row locks keep concurrent single updates from slipping in between the version check and
+    // the write; taking them in ID order keeps concurrent batches from deadlocking
+    private Map<Long, Long> lockCustomers(Collection<Long> customerIds) {
+        Map<Long, Long> versions = new HashMap<>();
+        for (List<Long> chunk : chunks(customerIds.stream().sorted().toList())) {
+            jdbcTemplate.query(LOCK_SQL, Map.of("ids", chunk), rs -> {
+                long version = rs.getLong("version");
+                versions.put(rs.getLong("id"), rs.wasNull() ? null : version);
+            });
+        }
+        return versions;
+    }
+
+    private Map<String, Long> findUsernameOwners(List<String> usernames) {
+        Map<String, Long> owners = new HashMap<>();
+        for (List<String> chunk : chunks(usernames)) {
+            jdbcTemplate.query(USERNAME_OWNERS_SQL, Map.of("usernames", chunk), rs -> {
+                owners.put(rs.getString("username"), rs.getLong("id"));
+            });
+        }
+        return owners;
+    }
+
+    private void write(List<Update> updates) {
+        if (updates.isEmpty()) {
+            return;
+        }
+        updates.sort(Comparator.comparing(Update::customerId));
+
+        jdbcTemplate.getJdbcTemplate().batchUpdate(UPDATE_CUSTOMER_SQL, updates, CHUNK_SIZE, (ps, update) -> {
+            ps.setString(1, update.username());
+            ps.setLong(2, update.version());
+            ps.setLong(3, update.customerId());
+        });
+
+        for (List<Long> chunk : chunks(updates.stream().map(Update::customerId).toList())) {
+            jdbcTemplate.update(DELETE_CREDENTIALS_SQL, Map.of("ids", chunk));
+        }
+
+        List<Object[]> rows = new ArrayList<>();
+        for (Update update : updates) {
+            update.credentials().forEach((key, value) -> rows.add(new Object[]{update.customerId(), key, value}));
+        }
+        jdbcTemplate.getJdbcTemplate().batchUpdate(INSERT_CREDENTIAL_SQL, rows, CHUNK_SIZE, (ps, row) -> {
+            ps.setLong(1, (Long) row[0]);
+            ps.setString(2, (String) row[1]);
+            ps.setString(3, (String) row[2]);
+        });
+    }
+
+    private static <T> List<List<T>> chunks(List<T> values) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < values.size(); from += CHUNK_SIZE) {
+            chunks.add(values.subList(from, Math.min(from + CHUNK_SIZE, values.size())));
+        }
+        return chunks;
+    }
+
+    private record Update(Long customerId, String username, long version, Map<String, String> credentials) {
+    }
+}
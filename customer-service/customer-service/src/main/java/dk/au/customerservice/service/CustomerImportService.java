@@ -0,0 +1,87 @@
+package dk.au.customerservice.service;
+
+import dk.au.customerservice.dto.CustomerDTO;
+import dk.au.customerservice.dto.CustomerImportResultDTO;
+import dk.au.customerservice.model.Customer;
+import dk.au.customerservice.model.CustomerChange;
+import dk.au.customerservice.utils.CustomerImportReader;
+import dk.au.customerservice.utils.CustomerMapper;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Imports customers in bulk.
+ * <p>
+ * Customers are persisted while the payload is still being read. Every {@code batch-size}
+ * customers the persistence context is flushed, which sends the pending inserts as JDBC
+ * batches, and then cleared so memory use does not grow with the import. The whole import is
+ * one transaction: a malformed entry rolls back everything imported before it.
+ */
+@Service
+@Slf4j
+public class CustomerImportService {
+    private final EntityManager entityManager;
+    private final CustomerMapper customerMapper;
+    private final CustomerImportReader customerImportReader;
+    private final CustomerChangeLog customerChangeLog;
+    private final int batchSize;
+
+    public CustomerImportService(
+            EntityManager entityManager,
+            CustomerMapper customerMapper,
+            CustomerImportReader customerImportReader,
+            CustomerChangeLog customerChangeLog,
+            @Value("${customer.import.batch-size:500}") int batchSize) {
+        this.entityManager = entityManager;
+        this.customerMapper = customerMapper;
+        this.customerImportReader = customerImportReader;
+        this.customerChangeLog = customerChangeLog;
+        this.batchSize = batchSize;
+    }
+
+    @Transactional
+    public CustomerImportResultDTO importJson(InputStream input) throws IOException {
+        return importAll(customerImportReader.readJson(input));
+    }
+
+    @Transactional
+    public CustomerImportResultDTO importCsv(InputStream input) throws IOException {
+        return importAll(customerImportReader.readCsv(input));
+    }
+
+    private CustomerImportResultDTO importAll(Stream<CustomerDTO> customers) {
+        long start = System.nanoTime();
+        int imported = 0;
+        try (customers) {
+            Iterator<CustomerDTO> iterator = customers.iterator();
+            while (iterator.hasNext()) {
+                CustomerDTO customer = iterator.next();
+                // IDs always come from the sequence, never from the payload
+                customer.setId(null);
+                Customer entity = customerMapper.toEntity(customer);
+                entityManager.persist(entity);
+                customerChangeLog.record(CustomerChange.Type.CREATED, entity);
+                imported++;
+                if (imported % batchSize == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                    log.debug("Customer import progress - Imported: {}", imported);
+                }
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        long durationMillis = (System.nanoTime() - start) / 1_000_000;
+        log.info("Customer import completed - Imported: {}, DurationMillis: {}", imported, durationMillis);
+        return new CustomerImportResultDTO(imported, durationMillis);
+    }
+}
@@ -0,0 +1,17 @@
+package dk.au.customerservice.service;
+
+import dk.au.customerservice.dto.CustomerSearchResultDTO;
+
+import java.util.List;
+
+/**
+ * Ranked search over customer names and phone numbers.
+ * <p>
+ * A name or phone number starting with the query scores 2 plus the name's trigram similarity,
+ * a name containing it scores 1 plus the similarity, and other names only match on similarity
+ * (typos). Ties are ordered by name and ID so pages are stable. The implementation is selected
+ * with {@code customer.search.mode}.
+ */
+public interface CustomerSearch {
+    List<CustomerSearchResultDTO> search(String query, int page, int size);
+}
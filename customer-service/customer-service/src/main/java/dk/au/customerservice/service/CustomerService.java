@@ -1,40 +1,132 @@
 package dk.au.customerservice.service;
 
+import dk.au.customerservice.dto.CustomerCredentialViewDTO;
+import dk.au.customerservice.dto.CustomerUsernameDTO;
+import dk.au.customerservice.dto.VersionedCustomerDTO;
 import dk.au.customerservice.model.Customer;
+import dk.au.customerservice.model.CustomerChange;
 import dk.au.customerservice.repo.CustomerRepo;
+import dk.au.customerservice.utils.CustomerMapper;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class CustomerService {
+    // Names must match spring.cache.cache-names
+    public static final String CUSTOMER_CACHE = "customers";
+    public static final String CREDENTIAL_VIEW_CACHE = "customerCredentialViews";
+
     private final CustomerRepo customerRepo;
+    private final EntityManager entityManager;
+    private final CustomerChangeLog customerChangeLog;
+    private final CustomerMapper customerMapper;
+    private final CustomerCacheEvictor customerCacheEvictor;
 
     public List<Customer> getAllCustomers() {
         return customerRepo.findAll();
     }
 
-    public Optional<Customer> getCustomerById(Long id) {
-        return customerRepo.findById(id);
+    /**
+     * Returns up to {@code limit} customers with an ID greater than {@code after}, ordered by ID.
+     */
+    public List<Customer> getCustomersPage(Long after, int limit) {
+        return customerRepo.findByIdGreaterThanOrderByIdAsc(after != null ? after : 0L, Limit.of(limit));
+    }
+
+    /**
+     * Hands every customer to {@code action} in ID order while reading them through a database
+     * cursor. Each customer is detached once handled, so memory use does not grow with the table.
+     */
+    @Transactional(readOnly = true)
+    public void forEachCustomer(Consumer<Customer> action) {
+        try (Stream<Customer> customers = customerRepo.streamAll()) {
+            customers.forEach(customer -> {
+                action.accept(customer);
+                entityManager.detach(customer);
+            });
+        }
+    }
+
+    /**
+     * Hands the ID and username of every customer that has one to {@code action}, in ID order,
+     * through a database cursor. No entity is loaded.
+     */
+    @Transactional(readOnly = true)
+    public void forEachUsername(Consumer<CustomerUsernameDTO> action) {
+        try (Stream<CustomerUsernameDTO> usernames = customerRepo.streamUsernames()) {
+            usernames.forEach(action);
+        }
+    }
+
+    /**
+     * Read-through cached as a DTO, never as a managed entity. Entries expire after the
+     * configured TTL and are evicted after every committed write to the customer. Missing
+     * customers are not cached.
+     */
+    @Cacheable(cacheNames = CUSTOMER_CACHE, key = "#id", unless = "#result == null")
+    public Optional<VersionedCustomerDTO> getCustomerById(Long id) {
+        return customerRepo.findById(id)
+                .map(customer -> new VersionedCustomerDTO(customerMapper.toDTO(customer), customer.getVersion()));
+    }
+
+    public Optional<Customer> getCustomerByUsername(String username) {
+        return customerRepo.findByUsername(username);
+    }
+
+    @Cacheable(cacheNames = CREDENTIAL_VIEW_CACHE, key = "#id", unless = "#result == null")
+    public Optional<CustomerCredentialViewDTO> getCustomerCredentialView(Long id) {
+        return customerRepo.findCredentialViewById(id);
     }
 
+    // Nothing to evict: a new ID cannot be cached yet, and misses are not cached
+    @Transactional
     public Customer createCustomer(Customer customer) {
-        return customerRepo.save(customer);
+        Customer created = customerRepo.save(customer);
+        customerChangeLog.record(CustomerChange.Type.CREATED, created);
+        return created;
     }
 
+    @Transactional
     public void deleteCustomer(Long id) {
-        customerRepo.deleteById(id);
+        if (customerRepo.existsById(id)) {
+            customerRepo.deleteById(id);
+            customerChangeLog.recordDeleted(id);
+            customerCacheEvictor.evictAfterCommit(id);
+        }
     }
 
-    public Optional<Customer> updateCustomerCredentials(Long id, Map<String, String> newCredentials) {
+    /**
+     * Replaces the customer's credentials. When {@code expectedVersion} is not null the update
+     * only goes through if the stored customer still has that version.
+     *
+     * @throws OptimisticLockingFailureException if the customer was changed in the meantime
+     */
+    @Transactional
+    public Optional<Customer> updateCustomerCredentials(Long id, Map<String, String> newCredentials, Long expectedVersion) {
         return customerRepo.findById(id)
                 .map(customer -> {
+                    if (expectedVersion != null && !expectedVersion.equals(customer.getVersion())) {
+                        throw new OptimisticLockingFailureException("Customer " + id + " is at version "
+                                + customer.getVersion() + ", expected " + expectedVersion);
+                    }
                     customer.setCredentials(newCredentials);
-                    return customerRepo.save(customer);
+                    // Flushed so the returned customer and the change carry the incremented version
+                    Customer updated = customerRepo.saveAndFlush(customer);
+                    customerChangeLog.record(CustomerChange.Type.CREDENTIALS_UPDATED, updated);
+                    customerCacheEvictor.evictAfterCommit(id);
+                    return updated;
                 });
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,81 @@
+package dk.au.customerservice.service;
+
+import dk.au.customerservice.dto.CustomerSearchResultDTO;
+import dk.au.customerservice.repo.CustomerRepo;
+import dk.au.customerservice.utils.Trigrams;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Database-independent {@link CustomerSearch} for H2 and other databases without pg_trgm.
+ * <p>
+ * Scans every customer's searchable columns and keeps only the best {@code (page + 1) * size}
+ * matches in a bounded heap, so memory use depends on the page requested rather than on the
+ * number of customers. Latency grows linearly with the table; use the PostgreSQL implementation
+ * in production.
+ */
+@Service
+@ConditionalOnProperty(name = "customer.search.mode", havingValue = "memory", matchIfMissing = true)
+@RequiredArgsConstructor
+public class InMemoryCustomerSearch implements CustomerSearch {
+    // Same default as pg_trgm's similarity_threshold, used by its % operator
+    static final double SIMILARITY_THRESHOLD = 0.3;
+
+    static final Comparator<CustomerSearchResultDTO> RANKING = Comparator
+            .comparingDouble(CustomerSearchResultDTO::getScore).reversed()
+            .thenComparing(CustomerSearchResultDTO::getName, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(CustomerSearchResultDTO::getId);
+
+    private final CustomerRepo customerRepo;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<CustomerSearchResultDTO> search(String query, int page, int size) {
+        String normalized = query.trim().toLowerCase(Locale.ROOT);
+        Set<String> queryTrigrams = Trigrams.of(normalized);
+        long wanted = ((long) page + 1) * size;
+
+        // Worst match at the head, so it is the one dropped when the heap overflows
+        PriorityQueue<CustomerSearchResultDTO> best = new PriorityQueue<>(RANKING.reversed());
+        try (Stream<CustomerSearchResultDTO> candidates = customerRepo.streamSearchCandidates()) {
+            candidates.forEach(candidate -> {
+                double score = score(candidate, normalized, queryTrigrams);
+                if (score > 0) {
+                    candidate.setScore(score);
+                    best.add(candidate);
+                    if (best.size() > wanted) {
+                        best.poll();
+                    }
+                }
+            });
+        }
+
+        List<CustomerSearchResultDTO> ranked = new ArrayList<>(best);
+        ranked.sort(RANKING);
+        return ranked.subList((int) Math.min((long) page * size, ranked.size()), ranked.size());
+    }
+
+    private static double score(CustomerSearchResultDTO candidate, String query, Set<String> queryTrigrams) {
+        String name = candidate.getName() != null ? candidate.getName().toLowerCase(Locale.ROOT) : "";
+        String phoneNumber = candidate.getPhoneNumber() != null ? candidate.getPhoneNumber() : "";
+        double similarity = Trigrams.similarity(Trigrams.of(name), queryTrigrams);
+
+        if (name.startsWith(query) || phoneNumber.startsWith(query)) {
+            return 2 + similarity;
+        }
+        if (name.contains(query)) {
+            return 1 + similarity;
+        }
+        return similarity >= SIMILARITY_THRESHOLD ? similarity : 0;
+    }
+}
@@ -0,0 +1,60 @@
+package dk.au.customerservice.service;
+
+import dk.au.customerservice.dto.CustomerSearchResultDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * {@link CustomerSearch} on PostgreSQL using pg_trgm.
+ * <p>
+ * Substring and fuzzy name matches use the trigram GIN index on {@code lower(name)}. Phone
+ * prefixes use the {@code varchar_pattern_ops} index on {@code phone_number}. Both are created by
+ * {@link dk.au.customerservice.config.CustomerSearchIndexInitializer}.
+ */
+@Service
+@ConditionalOnProperty(name = "customer.search.mode", havingValue = "postgres")
+@RequiredArgsConstructor
+public class PostgresCustomerSearch implements CustomerSearch {
+    private static final String SEARCH_SQL =
+            "select id, name, phone_number, adress, " +
+            "  case when lower(name) like :prefix escape '\\' or phone_number like :prefix escape '\\' then 2 " +
+            "       when lower(name) like :contains escape '\\' then 1 " +
+            "       else 0 end + similarity(lower(name), :query) as score " +
+            "from customer " +
+            "where lower(name) like :contains escape '\\' " +
+            "   or lower(name) % :query " +
+            "   or phone_number like :prefix escape '\\' " +
+            "order by score desc, name, id " +
+            "limit :size offset :offset";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<CustomerSearchResultDTO> search(String query, int page, int size) {
+        String normalized = query.trim().toLowerCase(Locale.ROOT);
+        String escaped = escapeLike(normalized);
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("query", normalized)
+                .addValue("prefix", escaped + "%")
+                .addValue("contains", "%" + escaped + "%")
+                .addValue("size", size)
+                .addValue("offset", (long) page * size);
+
+        return jdbcTemplate.query(SEARCH_SQL, parameters, (rs, rowNum) -> new CustomerSearchResultDTO(
+                rs.getLong("id"),
+                rs.getString("name"),
+                rs.getString("phone_number"),
+                rs.getString("adress"),
+                rs.getDouble("score")));
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
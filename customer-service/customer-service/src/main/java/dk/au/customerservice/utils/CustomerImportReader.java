@@ -0,0 +1,214 @@
+package dk.au.customerservice.utils;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dk.au.customerservice.dto.CustomerDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads customers for a bulk import one at a time, so an import never holds the whole
+ * payload in memory.
+ * <p>
+ * Both readers return a lazy stream that must be closed. Malformed input surfaces as an
+ * {@link IllegalArgumentException} while the stream is consumed; failures reading the input
+ * itself, such as a truncated upload, as an {@link UncheckedIOException}.
+ */
+@Component
+@RequiredArgsConstructor
+public class CustomerImportReader {
+    private static final String USERNAME = "username";
+    private static final String PASSWORD = "password";
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Reads a JSON array of {@link CustomerDTO} objects.
+     */
+    public Stream<CustomerDTO> readJson(InputStream input) throws IOException {
+        JsonParser parser = objectMapper.createParser(input);
+        JsonToken first;
+        try {
+            first = parser.nextToken();
+        } catch (JsonProcessingException e) {
+            parser.close();
+            throw new IllegalArgumentException("Malformed JSON import: " + e.getOriginalMessage(), e);
+        }
+        if (first != JsonToken.START_ARRAY) {
+            parser.close();
+            throw new IllegalArgumentException("Expected a JSON array of customers");
+        }
+
+        Iterator<CustomerDTO> customers = new Iterator<>() {
+            private JsonToken next = nextToken();
+
+            @Override
+            public boolean hasNext() {
+                return next == JsonToken.START_OBJECT;
+            }
+
+            @Override
+            public CustomerDTO next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                try {
+                    CustomerDTO customer = parser.readValueAs(CustomerDTO.class);
+                    next = nextToken();
+                    return customer;
+                } catch (JsonProcessingException e) {
+                    throw new IllegalArgumentException("Malformed customer in JSON import: " + e.getOriginalMessage(), e);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            private JsonToken nextToken() {
+                try {
+                    JsonToken token = parser.nextToken();
+                    if (token != JsonToken.START_OBJECT && token != JsonToken.END_ARRAY) {
+                        throw new IllegalArgumentException("Expected a customer object but found " + token);
+                    }
+                    return token;
+                } catch (JsonProcessingException e) {
+                    throw new IllegalArgumentException("Malformed JSON import: " + e.getOriginalMessage(), e);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+        return toStream(customers, parser);
+    }
+
+    /**
+     * Reads CSV with a header row. Recognised columns are name, birth, adress, phoneNumber,
+     * username and password; their order is taken from the header and unknown columns are ignored.
+     */
+    public Stream<CustomerDTO> readCsv(InputStream input) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        String headerLine = reader.readLine();
+        if (headerLine == null) {
+            reader.close();
+            return Stream.empty();
+        }
+        List<String> header = parseCsvLine(headerLine, 1);
+        if (!header.contains("name")) {
+            reader.close();
+            throw new IllegalArgumentException("CSV import header must contain a 'name' column");
+        }
+
+        Iterator<CustomerDTO> customers = new Iterator<>() {
+            private int lineNumber = 1;
+            private String next = readDataLine();
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public CustomerDTO next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                List<String> values = parseCsvLine(next, lineNumber);
+                if (values.size() > header.size()) {
+                    throw new IllegalArgumentException("CSV import line " + lineNumber + " has more columns than the header");
+                }
+                next = readDataLine();
+
+                Map<String, String> row = new HashMap<>();
+                for (int i = 0; i < values.size(); i++) {
+                    row.put(header.get(i), values.get(i));
+                }
+                Map<String, String> credentials = new HashMap<>();
+                putIfPresent(credentials, USERNAME, row.get(USERNAME));
+                putIfPresent(credentials, PASSWORD, row.get(PASSWORD));
+                return new CustomerDTO(row.get("name"), row.get("birth"), row.get("adress"), row.get("phoneNumber"), credentials);
+            }
+
+            private String readDataLine() {
+                try {
+                    String line;
+                    do {
+                        line = reader.readLine();
+                        lineNumber++;
+                    } while (line != null && line.isBlank());
+                    return line;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+        return toStream(customers, reader);
+    }
+
+    private static void putIfPresent(Map<String, String> credentials, String key, String value) {
+        if (value != null && !value.isEmpty()) {
+            credentials.put(key, value);
+        }
+    }
+
+    // RFC 4180 style fields: commas separate, double quotes enclose, "" escapes a quote
+    static List<String> parseCsvLine(String line, int lineNumber) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString().trim());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("CSV import line " + lineNumber + " has an unterminated quote");
+        }
+        fields.add(field.toString().trim());
+        return fields;
+    }
+
+    private static Stream<CustomerDTO> toStream(Iterator<CustomerDTO> customers, Closeable source) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(customers, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(() -> {
+                    try {
+                        source.close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+}
@@ -4,6 +4,8 @@ import dk.au.customerservice.dto.CustomerDTO;
 import dk.au.customerservice.model.Customer;
 import org.springframework.stereotype.Component;
 
+import java.util.HashMap;
+
 @Component
 public class CustomerMapper {
     public CustomerDTO toDTO(Customer customer) {
@@ -13,7 +15,8 @@ public class CustomerMapper {
             customer.getBirth(),
             customer.getAdress(),
             customer.getPhoneNumber(),
-            customer.getCredentials()
+            // Copied so the DTO never depends on an open persistence context
+            customer.getCredentials() != null ? new HashMap<>(customer.getCredentials()) : new HashMap<>()
         );
     }
 
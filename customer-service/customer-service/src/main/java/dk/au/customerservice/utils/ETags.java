@@ -0,0 +1,56 @@
+package dk.au.customerservice.utils;
+
+/**
+ * Version-based entity tags. A resource's ETag is its JPA {@code @Version} in quotes, so a
+ * conditional GET can be answered without serializing the resource and an {@code If-Match}
+ * header can be checked against the stored version.
+ */
+public final class ETags {
+    private ETags() {
+    }
+
+    public static String of(Long version) {
+        return "\"" + (version != null ? version : 0L) + "\"";
+    }
+
+    /**
+     * If-None-Match check: weak comparison against each listed tag, or {@code *}.
+     */
+    public static boolean matchesAny(String header, String eTag) {
+        if (header == null || header.isBlank()) {
+            return false;
+        }
+        for (String candidate : header.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || stripWeak(tag).equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the version an If-Match header requires, or null when there is no precondition
+     * ({@code *} or no header).
+     *
+     * @throws IllegalArgumentException if the header is not a single version tag
+     */
+    public static Long expectedVersion(String header) {
+        if (header == null || header.isBlank() || header.trim().equals("*")) {
+            return null;
+        }
+        String tag = header.trim();
+        if (tag.length() < 3 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            throw new IllegalArgumentException("If-Match must be a single quoted version tag");
+        }
+        try {
+            return Long.parseLong(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("If-Match must be a single quoted version tag", e);
+        }
+    }
+
+    private static String stripWeak(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+}
@@ -0,0 +1,55 @@
+package dk.au.customerservice.utils;
+
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Produces realistic-looking customers from a seed. The same seed and starting ID always yield
+ * the same customers, so load tests run against a repeatable dataset.
+ */
+public class SyntheticCustomerFactory {
+    private static final String[] FIRST_NAMES = {
+            "Anna", "Emma", "Ida", "Clara", "Freja", "Sofia", "Laura", "Maja", "Karla", "Alma",
+            "William", "Noah", "Oscar", "Lucas", "Carl", "Victor", "Malthe", "Emil", "Alfred", "Max",
+            "Erika", "Hans", "Lena", "Jonas", "Mette", "Peter", "Sara", "Thomas", "Julie", "Mads"};
+    private static final String[] LAST_NAMES = {
+            "Nielsen", "Jensen", "Hansen", "Pedersen", "Andersen", "Christensen", "Larsen", "Sørensen",
+            "Rasmussen", "Jørgensen", "Petersen", "Madsen", "Kristensen", "Olsen", "Thomsen", "Mustermann",
+            "Schmidt", "Müller", "Poulsen", "Johansen", "Knudsen", "Mortensen", "Møller", "Jakobsen"};
+    private static final String[] STREETS = {
+            "Birk Centerpark", "Hovedgaden", "Nørregade", "Vestergade", "Søndergade", "Østergade",
+            "Strandvejen", "Skolevej", "Kirkevej", "Parkvej", "Engvej", "Industrivej"};
+    private static final LocalDate OLDEST_BIRTH = LocalDate.of(1940, 1, 1);
+    private static final int BIRTH_RANGE_DAYS = 365 * 65;
+
+    private final SplittableRandom random;
+    private final String passwordHash;
+
+    public SyntheticCustomerFactory(long seed, String passwordHash) {
+        this.random = new SplittableRandom(seed);
+        this.passwordHash = passwordHash;
+    }
+
+    public SyntheticCustomer next(long id) {
+        String firstName = pick(FIRST_NAMES);
+        String lastName = pick(LAST_NAMES);
+        return new SyntheticCustomer(
+                id,
+                firstName + " " + lastName,
+                OLDEST_BIRTH.plusDays(random.nextInt(BIRTH_RANGE_DAYS)).toString(),
+                pick(STREETS) + " " + (1 + random.nextInt(250)),
+                String.valueOf(20_000_000 + random.nextInt(80_000_000)),
+                // The ID keeps usernames unique without a lookup
+                (firstName + "." + lastName).toLowerCase(Locale.ROOT) + "." + id,
+                passwordHash);
+    }
+
+    private String pick(String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    public record SyntheticCustomer(long id, String name, String birth, String adress, String phoneNumber,
+                                    String username, String passwordHash) {
+    }
+}
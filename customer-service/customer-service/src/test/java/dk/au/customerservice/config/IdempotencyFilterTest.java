@@ -0,0 +1,212 @@
+package dk.au.customerservice.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdempotencyFilterTest {
+    private IdempotencyFilter filter;
+    private AtomicInteger executions;
+
+    @BeforeEach
+    void setUp() {
+        filter = new IdempotencyFilter(List.of(new IdempotencyFilter.Endpoint("POST", "/api/customers")),
+                Duration.ofMinutes(1), 100, Duration.ofSeconds(5));
+        executions = new AtomicInteger();
+    }
+
+    private FilterChain creatingChain(int status) {
+        return (request, response) -> {
+            int id = executions.incrementAndGet();
+            request.getInputStream().readAllBytes();
+            HttpServletResponse httpResponse = (HttpServletResponse) response;
+            httpResponse.setStatus(status);
+            httpResponse.setContentType("application/json");
+            httpResponse.getWriter().write("{\"id\":" + id + "}");
+        };
+    }
+
+    private static MockHttpServletRequest request(String key, String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/customers");
+        if (key != null) {
+            request.addHeader(IdempotencyFilter.HEADER, key);
+        }
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    private MockHttpServletResponse send(MockHttpServletRequest request, FilterChain chain) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    @Test
+    void doFilter_ShouldReplayStoredResponseWithoutRunningTheRequestAgain() throws Exception {
+        MockHttpServletResponse first = send(request("key-1", "{\"name\":\"Max\"}"), creatingChain(200));
+        MockHttpServletResponse retry = send(request("key-1", "{\"name\":\"Max\"}"), creatingChain(200));
+
+        assertThat(executions).hasValue(1);
+        assertThat(retry.getStatus()).isEqualTo(200);
+        assertThat(retry.getContentAsString()).isEqualTo(first.getContentAsString()).isEqualTo("{\"id\":1}");
+        assertThat(retry.getContentType()).startsWith("application/json");
+        assertThat(retry.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(first.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isNull();
+    }
+
+    @Test
+    void doFilter_ShouldRunRequestsWithoutKeyOrWithDifferentKeys() throws Exception {
+        send(request(null, "{}"), creatingChain(200));
+        send(request(null, "{}"), creatingChain(200));
+        send(request("key-1", "{}"), creatingChain(200));
+        send(request("key-2", "{}"), creatingChain(200));
+
+        assertThat(executions).hasValue(4);
+    }
+
+    @Test
+    void doFilter_ShouldRejectKeyReusedForADifferentBody() throws Exception {
+        send(request("key-1", "{\"name\":\"Max\"}"), creatingChain(200));
+        MockHttpServletResponse reused = send(request("key-1", "{\"name\":\"Erika\"}"), creatingChain(200));
+
+        assertThat(executions).hasValue(1);
+        assertThat(reused.getStatus()).isEqualTo(422);
+    }
+
+    @Test
+    void doFilter_ShouldNotStoreServerErrors() throws Exception {
+        send(request("key-1", "{}"), creatingChain(503));
+        MockHttpServletResponse retry = send(request("key-1", "{}"), creatingChain(200));
+
+        assertThat(executions).hasValue(2);
+        assertThat(retry.getStatus()).isEqualTo(200);
+        assertThat(retry.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isNull();
+    }
+
+    @Test
+    void doFilter_ShouldLetConcurrentDuplicatesWaitForTheFirstExecution() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        FilterChain slowChain = (request, response) -> {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            creatingChain(200).doFilter(request, response);
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<MockHttpServletResponse> first = executor.submit(() -> send(request("key-1", "{}"), slowChain));
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            Future<MockHttpServletResponse> duplicate = executor.submit(() -> send(request("key-1", "{}"), slowChain));
+
+            Thread.sleep(100);
+            assertThat(duplicate.isDone()).isFalse();
+            release.countDown();
+
+            assertThat(first.get(5, TimeUnit.SECONDS).getContentAsString()).isEqualTo("{\"id\":1}");
+            assertThat(duplicate.get(5, TimeUnit.SECONDS).getContentAsString()).isEqualTo("{\"id\":1}");
+            assertThat(executions).hasValue(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void doFilter_WhenStoredResponsesOverflow_ShouldStillHoldDuplicatesOfARunningRequest() throws Exception {
+        filter = new IdempotencyFilter(List.of(new IdempotencyFilter.Endpoint("POST", "/api/customers")),
+                Duration.ofMinutes(1), 1, Duration.ofSeconds(5));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        FilterChain slowChain = (request, response) -> {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            creatingChain(200).doFilter(request, response);
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<MockHttpServletResponse> first = executor.submit(() -> send(request("key-1", "{}"), slowChain));
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            for (int i = 2; i <= 50; i++) {
+                send(request("key-" + i, "{}"), creatingChain(200));
+            }
+            Future<MockHttpServletResponse> duplicate = executor.submit(() -> send(request("key-1", "{}"), slowChain));
+
+            Thread.sleep(100);
+            assertThat(duplicate.isDone()).isFalse();
+            release.countDown();
+
+            String firstBody = first.get(5, TimeUnit.SECONDS).getContentAsString();
+            assertThat(duplicate.get(5, TimeUnit.SECONDS).getContentAsString()).isEqualTo(firstBody);
+            assertThat(executions).hasValue(50);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void doFilter_ShouldIgnoreKeyOnOtherEndpoints() throws Exception {
+        MockHttpServletRequest search = new MockHttpServletRequest("GET", "/api/customers");
+        search.addHeader(IdempotencyFilter.HEADER, "key-1");
+        send(search, creatingChain(200));
+        MockHttpServletRequest again = new MockHttpServletRequest("GET", "/api/customers");
+        again.addHeader(IdempotencyFilter.HEADER, "key-1");
+        send(again, creatingChain(200));
+
+        assertThat(executions).hasValue(2);
+    }
+
+    @Test
+    void doFilter_ShouldNotReplayAnotherCallersResponse() throws Exception {
+        MockHttpServletRequest first = request("key-1", "{}");
+        first.addHeader("Authorization", "Bearer client-a");
+        send(first, creatingChain(200));
+        MockHttpServletRequest other = request("key-1", "{}");
+        other.addHeader("Authorization", "Bearer client-b");
+        MockHttpServletResponse response = send(other, creatingChain(200));
+
+        assertThat(executions).hasValue(2);
+        assertThat(response.getContentAsString()).isEqualTo("{\"id\":2}");
+        assertThat(response.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isNull();
+    }
+
+    @Test
+    void doFilter_WithoutAuthorization_ShouldScopeKeysByClientAddress() throws Exception {
+        MockHttpServletRequest first = request("key-1", "{}");
+        first.setRemoteAddr("10.0.0.1");
+        send(first, creatingChain(200));
+        MockHttpServletRequest other = request("key-1", "{}");
+        other.setRemoteAddr("10.0.0.2");
+        send(other, creatingChain(200));
+        MockHttpServletRequest retry = request("key-1", "{}");
+        retry.setRemoteAddr("10.0.0.1");
+        MockHttpServletResponse replayed = send(retry, creatingChain(200));
+
+        assertThat(executions).hasValue(2);
+        assertThat(replayed.getContentAsString()).isEqualTo("{\"id\":1}");
+    }
+}
@@ -0,0 +1,62 @@
+package dk.au.customerservice.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LogSamplingFilterTest {
+    private LogSamplingFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new LogSamplingFilter();
+        filter.setRate(10);
+        filter.setLoggerPrefix("dk.au.customerservice");
+    }
+
+    @Test
+    void decide_ShouldKeepOneInRateInfoEventsWithoutRequestId() {
+        long kept = IntStream.range(0, 100)
+                .mapToObj(i -> filter.decide(event("dk.au.customerservice.controller.CustomerController", Level.INFO, Map.of())))
+                .filter(reply -> reply == FilterReply.NEUTRAL)
+                .count();
+
+        assertThat(kept).isEqualTo(10);
+    }
+
+    @Test
+    void decide_ShouldKeepOrDropAllEventsOfARequestTogether() {
+        Map<String, String> mdc = Map.of(RequestIdFilter.MDC_KEY, "a1b2c3d4");
+        FilterReply first = filter.decide(event("dk.au.customerservice.controller.CustomerController", Level.INFO, mdc));
+
+        for (int i = 0; i < 20; i++) {
+            assertThat(filter.decide(event("dk.au.customerservice.service.CustomerService", Level.DEBUG, mdc)))
+                    .isEqualTo(first);
+        }
+    }
+
+    @Test
+    void decide_ShouldAlwaysKeepWarningsAndOtherLoggers() {
+        for (int i = 0; i < 20; i++) {
+            assertThat(filter.decide(event("dk.au.customerservice.controller.CustomerController", Level.WARN, Map.of())))
+                    .isEqualTo(FilterReply.NEUTRAL);
+            assertThat(filter.decide(event("org.hibernate.SQL", Level.INFO, Map.of())))
+                    .isEqualTo(FilterReply.NEUTRAL);
+        }
+    }
+
+    private static LoggingEvent event(String loggerName, Level level, Map<String, String> mdc) {
+        LoggingEvent event = new LoggingEvent();
+        event.setLoggerName(loggerName);
+        event.setLevel(level);
+        event.setMDCPropertyMap(mdc);
+        return event;
+    }
+}
@@ -0,0 +1,54 @@
+package dk.au.customerservice.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dk.au.customerservice.dto.CustomerUsernameDTO;
+import dk.au.customerservice.service.CustomerChangeFeed;
+import dk.au.customerservice.service.CustomerService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CustomerChangeControllerTest {
+    @Mock
+    private CustomerChangeFeed customerChangeFeed;
+
+    @Mock
+    private CustomerService customerService;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void streamUsernames_ShouldSendOffsetReadBeforeTheUsernames() throws Exception {
+        CustomerChangeController controller = new CustomerChangeController(customerChangeFeed, customerService, new ObjectMapper());
+        when(customerChangeFeed.latestOffset()).thenReturn(42L);
+        doAnswer(invocation -> {
+            Consumer<CustomerUsernameDTO> action = invocation.getArgument(0);
+            action.accept(new CustomerUsernameDTO(1L, "max.mustermann"));
+            action.accept(new CustomerUsernameDTO(2L, "erika.mustermann"));
+            return null;
+        }).when(customerService).forEachUsername(any(Consumer.class));
+
+        ResponseEntity<StreamingResponseBody> response = controller.streamUsernames();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        response.getBody().writeTo(body);
+
+        assertThat(response.getHeaders().getFirst(CustomerChangeController.CHANGE_OFFSET_HEADER)).isEqualTo("42");
+        assertThat(body.toString(StandardCharsets.UTF_8)).isEqualTo(
+                "[{\"id\":1,\"username\":\"max.mustermann\"},{\"id\":2,\"username\":\"erika.mustermann\"}]");
+        InOrder order = inOrder(customerChangeFeed, customerService);
+        order.verify(customerChangeFeed).latestOffset();
+        order.verify(customerService).forEachUsername(any(Consumer.class));
+    }
+}
@@ -1,7 +1,13 @@
 package dk.au.customerservice.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dk.au.customerservice.dto.CustomerCredentialViewDTO;
+import dk.au.customerservice.dto.CredentialUpdateRequest;
 import dk.au.customerservice.dto.CustomerDTO;
+import dk.au.customerservice.dto.CustomerImportResultDTO;
+import dk.au.customerservice.dto.VersionedCustomerDTO;
 import dk.au.customerservice.model.Customer;
+import dk.au.customerservice.service.CustomerImportService;
 import dk.au.customerservice.service.CustomerService;
 import dk.au.customerservice.utils.CustomerMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -9,8 +15,16 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
@@ -29,6 +43,9 @@ class CustomerControllerTest {
     @Mock
     private CustomerMapper customerMapper;
 
+    @Mock
+    private CustomerImportService customerImportService;
+
     private CustomerController customerController;
     private Customer testCustomer;
     private CustomerDTO testCustomerDTO;
@@ -36,7 +53,7 @@ class CustomerControllerTest {
 
     @BeforeEach
     void setUp() {
-        customerController = new CustomerController(customerService, customerMapper);
+        customerController = new CustomerController(customerService, customerMapper, new ObjectMapper(), customerImportService);
 
         testCredentials = new HashMap<>();
         testCredentials.put("username", "max.mustermann");
@@ -60,31 +77,126 @@ class CustomerControllerTest {
     }
 
     @Test
-    void getCustomerById_WhenCustomerExists_ShouldReturnCustomer() {
-        when(customerService.getCustomerById(1L)).thenReturn(Optional.of(testCustomer));
+    void getAllCustomers_WithFullPage_ShouldReturnNextCursor() {
+        testCustomer.setId(42L);
+        when(customerService.getCustomersPage(10L, 1)).thenReturn(List.of(testCustomer));
+        when(customerMapper.toDTO(testCustomer)).thenReturn(testCustomerDTO);
+
+        ResponseEntity<List<CustomerDTO>> response = customerController.getAllCustomers(10L, 1);
+
+        assertThat(response.getBody()).containsExactly(testCustomerDTO);
+        assertThat(response.getHeaders().getFirst(CustomerController.NEXT_AFTER_HEADER)).isEqualTo("42");
+    }
+
+    @Test
+    void getAllCustomers_WithLastPage_ShouldNotReturnNextCursor() {
+        when(customerService.getCustomersPage(10L, CustomerController.DEFAULT_PAGE_SIZE)).thenReturn(List.of(testCustomer));
         when(customerMapper.toDTO(testCustomer)).thenReturn(testCustomerDTO);
 
-        ResponseEntity<CustomerDTO> response = customerController.getCustomerById(1L);
+        ResponseEntity<List<CustomerDTO>> response = customerController.getAllCustomers(10L, null);
+
+        assertThat(response.getBody()).hasSize(1);
+        assertThat(response.getHeaders().containsKey(CustomerController.NEXT_AFTER_HEADER)).isFalse();
+        verify(customerService, never()).getAllCustomers();
+    }
+
+    @Test
+    void getCustomerById_WhenCustomerExists_ShouldReturnCustomer() {
+        when(customerService.getCustomerById(1L)).thenReturn(Optional.of(new VersionedCustomerDTO(testCustomerDTO, 0L)));
+
+        ResponseEntity<CustomerDTO> response = customerController.getCustomerById(1L, null);
 
         assertThat(response.getStatusCode().is2xxSuccessful()).isTrue();
         assertThat(response.getBody()).isNotNull();
         assertThat(response.getBody().getName()).isEqualTo(testCustomer.getName());
         assertThat(response.getBody().getCredentials()).isEqualTo(testCustomer.getCredentials());
         verify(customerService).getCustomerById(1L);
-        verify(customerMapper).toDTO(testCustomer);
     }
 
     @Test
     void getCustomerById_WhenCustomerDoesNotExist_ShouldReturn404() {
         when(customerService.getCustomerById(1L)).thenReturn(Optional.empty());
 
-        ResponseEntity<CustomerDTO> response = customerController.getCustomerById(1L);
+        ResponseEntity<CustomerDTO> response = customerController.getCustomerById(1L, null);
 
         assertThat(response.getStatusCode().is4xxClientError()).isTrue();
         verify(customerService).getCustomerById(1L);
         verifyNoInteractions(customerMapper);
     }
 
+    @Test
+    void getCustomerById_ShouldReturnVersionETag() {
+        when(customerService.getCustomerById(1L)).thenReturn(Optional.of(new VersionedCustomerDTO(testCustomerDTO, 4L)));
+
+        ResponseEntity<CustomerDTO> response = customerController.getCustomerById(1L, null);
+
+        assertThat(response.getHeaders().getETag()).isEqualTo("\"4\"");
+    }
+
+    @Test
+    void getCustomerById_WhenETagMatches_ShouldReturn304WithoutBody() {
+        when(customerService.getCustomerById(1L)).thenReturn(Optional.of(new VersionedCustomerDTO(testCustomerDTO, 4L)));
+
+        ResponseEntity<CustomerDTO> response = customerController.getCustomerById(1L, "W/\"3\", \"4\"");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(response.getBody()).isNull();
+        verifyNoInteractions(customerMapper);
+    }
+
+    @Test
+    void updateCustomerCredentials_WhenIfMatchIsStale_ShouldReturn412() {
+        CredentialUpdateRequest request = new CredentialUpdateRequest();
+        request.setCredentials(testCredentials);
+        when(customerService.updateCustomerCredentials(1L, testCredentials, 2L))
+                .thenThrow(new OptimisticLockingFailureException("stale"));
+
+        ResponseEntity<CustomerDTO> response = customerController.updateCustomerCredentials(1L, request, "\"2\"");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.PRECONDITION_FAILED);
+    }
+
+    @Test
+    void getCustomerByUsername_WhenCustomerExists_ShouldReturnCustomer() {
+        when(customerService.getCustomerByUsername("max.mustermann")).thenReturn(Optional.of(testCustomer));
+        when(customerMapper.toDTO(testCustomer)).thenReturn(testCustomerDTO);
+
+        ResponseEntity<CustomerDTO> response = customerController.getCustomerByUsername("max.mustermann");
+
+        assertThat(response.getStatusCode().is2xxSuccessful()).isTrue();
+        assertThat(response.getBody()).isEqualTo(testCustomerDTO);
+    }
+
+    @Test
+    void getCustomerByUsername_WhenCustomerDoesNotExist_ShouldReturn404() {
+        when(customerService.getCustomerByUsername("unknown")).thenReturn(Optional.empty());
+
+        ResponseEntity<CustomerDTO> response = customerController.getCustomerByUsername("unknown");
+
+        assertThat(response.getStatusCode().is4xxClientError()).isTrue();
+    }
+
+    @Test
+    void getCustomerCredentialView_WhenCustomerExists_ShouldReturnView() {
+        CustomerCredentialViewDTO view = new CustomerCredentialViewDTO(1L, "Max Mustermann", "max.mustermann", "mysecret", 2L);
+        when(customerService.getCustomerCredentialView(1L)).thenReturn(Optional.of(view));
+
+        ResponseEntity<CustomerCredentialViewDTO> response = customerController.getCustomerCredentialView(1L);
+
+        assertThat(response.getStatusCode().is2xxSuccessful()).isTrue();
+        assertThat(response.getBody()).isEqualTo(view);
+        verifyNoInteractions(customerMapper);
+    }
+
+    @Test
+    void getCustomerCredentialView_WhenCustomerDoesNotExist_ShouldReturn404() {
+        when(customerService.getCustomerCredentialView(1L)).thenReturn(Optional.empty());
+
+        ResponseEntity<CustomerCredentialViewDTO> response = customerController.getCustomerCredentialView(1L);
+
+        assertThat(response.getStatusCode().is4xxClientError()).isTrue();
+    }
+
     @Test
     void createCustomer_ShouldReturnCreatedCustomer() {
         when(customerMapper.toEntity(testCustomerDTO)).thenReturn(testCustomer);
@@ -101,4 +213,24 @@ class CustomerControllerTest {
         verify(customerService).createCustomer(testCustomer);
         verify(customerMapper).toDTO(testCustomer);
     }
-} 
\ No newline at end of file
+
+    @Test
+    void importCustomersJson_WhenUsernameIsTaken_ShouldReturn409() throws Exception {
+        InputStream body = new ByteArrayInputStream("[]".getBytes(StandardCharsets.UTF_8));
+        when(customerImportService.importJson(body)).thenThrow(new DataIntegrityViolationException("duplicate username"));
+
+        ResponseEntity<CustomerImportResultDTO> response = customerController.importCustomersJson(body);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+    }
+
+    @Test
+    void importCustomersCsv_WhenUploadIsTruncated_ShouldReturn400() throws Exception {
+        InputStream body = new ByteArrayInputStream("name\n".getBytes(StandardCharsets.UTF_8));
+        when(customerImportService.importCsv(body)).thenThrow(new UncheckedIOException(new EOFException()));
+
+        ResponseEntity<CustomerImportResultDTO> response = customerController.importCustomersCsv(body);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+}
@@ -0,0 +1,115 @@
+package dk.au.customerservice.repo;
+
+import dk.au.customerservice.dto.CustomerDTO;
+import dk.au.customerservice.dto.CustomerUsernameDTO;
+import dk.au.customerservice.model.Customer;
+import dk.au.customerservice.utils.CustomerMapper;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Guards against N+1 loading of the credentials collection by counting the SQL statements
+ * issued while listing and mapping 1,000 customers.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class CustomerRepoFetchTest {
+    private static final int CUSTOMERS = 1000;
+
+    @Autowired
+    private CustomerRepo customerRepo;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final CustomerMapper customerMapper = new CustomerMapper();
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        List<Customer> customers = new ArrayList<>();
+        for (int i = 0; i < CUSTOMERS; i++) {
+            customers.add(new Customer("Customer " + i, "2025-05-15", "Birk Centerpark " + i, "1234567",
+                    Map.of("username", "customer" + i, "password", "secret" + i)));
+        }
+        customerRepo.saveAll(customers);
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findAll_ShouldLoadCustomersAndCredentialsInOneStatement() {
+        List<CustomerDTO> customers = customerRepo.findAll().stream()
+                .map(customerMapper::toDTO)
+                .collect(Collectors.toList());
+
+        assertThat(customers).hasSize(CUSTOMERS);
+        assertThat(customers).allSatisfy(customer -> assertThat(customer.getCredentials()).hasSize(2));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void findByIdGreaterThan_ShouldBatchLoadCredentials() {
+        List<CustomerDTO> customers = customerRepo.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(CUSTOMERS)).stream()
+                .map(customerMapper::toDTO)
+                .collect(Collectors.toList());
+
+        assertThat(customers).hasSize(CUSTOMERS);
+        assertThat(customers).allSatisfy(customer -> assertThat(customer.getCredentials()).hasSize(2));
+        // One page query plus one credentials query per batch of 100 customers
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(1 + CUSTOMERS / 100);
+    }
+
+    @Test
+    void streamAll_ShouldFetchCredentialsWithTheCustomers() {
+        List<CustomerDTO> customers;
+        try (Stream<Customer> stream = customerRepo.streamAll()) {
+            customers = stream.map(customerMapper::toDTO).collect(Collectors.toList());
+        }
+
+        assertThat(customers).hasSize(CUSTOMERS);
+        assertThat(customers).allSatisfy(customer -> assertThat(customer.getCredentials()).hasSize(2));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void streamUsernames_ShouldReadUsernamesWithoutLoadingCustomers() {
+        List<CustomerUsernameDTO> usernames;
+        try (Stream<CustomerUsernameDTO> stream = customerRepo.streamUsernames()) {
+            usernames = stream.collect(Collectors.toList());
+        }
+
+        assertThat(usernames).hasSize(CUSTOMERS);
+        assertThat(usernames).extracting(CustomerUsernameDTO::getUsername).contains("customer0", "customer999");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void findById_ShouldLoadCredentialsInTheSameStatement() {
+        Long id = customerRepo.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(1)).get(0).getId();
+        entityManager.clear();
+        statistics.clear();
+
+        Customer customer = customerRepo.findById(id).orElseThrow();
+
+        assertThat(customerMapper.toDTO(customer).getCredentials()).hasSize(2);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+}
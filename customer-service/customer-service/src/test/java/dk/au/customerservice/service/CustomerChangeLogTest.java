@@ -0,0 +1,90 @@
+package dk.au.customerservice.service;
+
+import dk.au.customerservice.model.CustomerChange;
+import dk.au.customerservice.repo.CustomerChangeRepo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Offsets are assigned at commit, so these tests commit for real instead of rolling back
+@DataJpaTest
+@Import(CustomerChangeLog.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CustomerChangeLogTest {
+    @Autowired
+    private CustomerChangeLog customerChangeLog;
+
+    @Autowired
+    private CustomerChangeRepo customerChangeRepo;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        customerChangeRepo.deleteAll();
+    }
+
+    private List<CustomerChange> feed() {
+        return customerChangeRepo.findByFeedOffsetGreaterThanOrderByFeedOffsetAsc(0L, Limit.of(100));
+    }
+
+    @Test
+    void record_ShouldAssignContiguousOffsetsOnCommit() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            customerChangeLog.record(CustomerChange.Type.CREATED, 1L, 0L);
+            customerChangeLog.record(CustomerChange.Type.CREATED, 2L, 0L);
+        });
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                customerChangeLog.recordDeleted(1L));
+
+        List<CustomerChange> changes = feed();
+
+        assertThat(changes).extracting(CustomerChange::getCustomerId).containsExactly(1L, 2L, 1L);
+        long first = changes.get(0).getFeedOffset();
+        assertThat(changes).extracting(CustomerChange::getFeedOffset).containsExactly(first, first + 1, first + 2);
+    }
+
+    @Test
+    void record_ShouldOrderOffsetsByCommitNotByWrite() throws Exception {
+        CountDownLatch written = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        CompletableFuture<Void> slow = CompletableFuture.runAsync(() ->
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                    customerChangeLog.record(CustomerChange.Type.CREATED, 1L, 0L);
+                    written.countDown();
+                    try {
+                        commit.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }));
+        assertThat(written.await(5, TimeUnit.SECONDS)).isTrue();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                customerChangeLog.record(CustomerChange.Type.CREATED, 2L, 0L));
+        assertThat(feed()).extracting(CustomerChange::getCustomerId).containsExactly(2L);
+
+        commit.countDown();
+        slow.get(5, TimeUnit.SECONDS);
+
+        List<CustomerChange> changes = feed();
+        assertThat(changes).extracting(CustomerChange::getCustomerId).containsExactly(2L, 1L);
+        // The slow transaction wrote first and has the lower row ID, but its offset comes after
+        assertThat(changes.get(1).getId()).isLessThan(changes.get(0).getId());
+    }
+}
@@ -0,0 +1,117 @@
+package dk.au.customerservice.service;
+
+import dk.au.customerservice.dto.CredentialBatchUpdateItem;
+import dk.au.customerservice.dto.CredentialBatchUpdateResultDTO;
+import dk.au.customerservice.dto.CredentialBatchUpdateResultDTO.Status;
+import dk.au.customerservice.model.Customer;
+import dk.au.customerservice.repo.CustomerChangeRepo;
+import dk.au.customerservice.repo.CustomerRepo;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import({CustomerCredentialBatchService.class, CustomerChangeLog.class, CustomerCacheEvictor.class,
+        CustomerCredentialBatchServiceTest.CacheConfig.class})
+class CustomerCredentialBatchServiceTest {
+    @Autowired
+    private CustomerCredentialBatchService batchService;
+
+    @Autowired
+    private CustomerRepo customerRepo;
+
+    @Autowired
+    private CustomerChangeRepo customerChangeRepo;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Customer first;
+    private Customer second;
+
+    @BeforeEach
+    void setUp() {
+        first = customerRepo.save(new Customer("Max Mustermann", "2025-05-15", "Birk Centerpark 120", "1234567",
+                Map.of("username", "max.mustermann", "password", "old1")));
+        second = customerRepo.save(new Customer("Erika Mustermann", "2025-05-15", "Birk Centerpark 122", "7654321",
+                Map.of("username", "erika.mustermann", "password", "old2")));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void updateCredentials_ShouldReplaceCredentialsAndBumpVersions() {
+        List<CredentialBatchUpdateResultDTO> results = batchService.updateCredentials(List.of(
+                new CredentialBatchUpdateItem(first.getId(), Map.of("username", "max.new", "password", "new1"), null),
+                new CredentialBatchUpdateItem(second.getId(), Map.of("password", "new2"), second.getVersion())));
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(results).extracting(CredentialBatchUpdateResultDTO::getStatus)
+                .containsExactly(Status.UPDATED, Status.UPDATED);
+        Customer updated = customerRepo.findById(first.getId()).orElseThrow();
+        assertThat(updated.getCredentials()).containsExactlyInAnyOrderEntriesOf(Map.of("username", "max.new", "password", "new1"));
+        assertThat(updated.getUsername()).isEqualTo("max.new");
+        assertThat(updated.getVersion()).isEqualTo(first.getVersion() + 1);
+        assertThat(customerRepo.findById(second.getId()).orElseThrow().getUsername()).isNull();
+        assertThat(customerChangeRepo.count()).isEqualTo(2);
+    }
+
+    @Test
+    void updateCredentials_ShouldReportFailuresPerItemAndApplyTheRest() {
+        List<CredentialBatchUpdateResultDTO> results = batchService.updateCredentials(List.of(
+                new CredentialBatchUpdateItem(999_999L, Map.of("password", "x"), null),
+                new CredentialBatchUpdateItem(first.getId(), Map.of("username", "erika.mustermann"), null),
+                new CredentialBatchUpdateItem(second.getId(), Map.of("password", "x"), second.getVersion() + 5),
+                new CredentialBatchUpdateItem(null, Map.of("password", "x"), null),
+                new CredentialBatchUpdateItem(first.getId(), Map.of("password", "again"), null)));
+
+        assertThat(results).extracting(CredentialBatchUpdateResultDTO::getStatus).containsExactly(
+                Status.NOT_FOUND, Status.USERNAME_TAKEN, Status.VERSION_MISMATCH, Status.INVALID, Status.INVALID);
+        assertThat(customerChangeRepo.count()).isZero();
+    }
+
+    @Test
+    void updateCredentials_ShouldHandleManyCustomersInOneCall() {
+        List<Customer> customers = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) {
+            customers.add(new Customer("Customer " + i, "2025-05-15", "Street " + i, "1234567"));
+        }
+        customerRepo.saveAll(customers);
+        entityManager.flush();
+        entityManager.clear();
+
+        List<CredentialBatchUpdateItem> items = customers.stream()
+                .map(customer -> new CredentialBatchUpdateItem(customer.getId(),
+                        Map.of("username", "user" + customer.getId(), "password", "hash"), null))
+                .toList();
+        List<CredentialBatchUpdateResultDTO> results = batchService.updateCredentials(items);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(results).hasSize(2500).allSatisfy(result -> assertThat(result.getStatus()).isEqualTo(Status.UPDATED));
+        Customer last = customers.get(customers.size() - 1);
+        assertThat(customerRepo.findByUsername("user" + last.getId())).isPresent();
+    }
+
+    @TestConfiguration
+    static class CacheConfig {
+        @Bean
+        CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager(CustomerService.CUSTOMER_CACHE, CustomerService.CREDENTIAL_VIEW_CACHE);
+        }
+    }
+}
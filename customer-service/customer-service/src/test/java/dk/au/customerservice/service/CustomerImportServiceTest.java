@@ -0,0 +1,108 @@
+package dk.au.customerservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dk.au.customerservice.dto.CustomerImportResultDTO;
+import dk.au.customerservice.model.Customer;
+import dk.au.customerservice.model.CustomerChange;
+import dk.au.customerservice.utils.CustomerImportReader;
+import dk.au.customerservice.utils.CustomerMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CustomerImportServiceTest {
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private CustomerChangeLog customerChangeLog;
+
+    private CustomerImportService customerImportService;
+
+    @BeforeEach
+    void setUp() {
+        customerImportService = new CustomerImportService(
+                entityManager, new CustomerMapper(), new CustomerImportReader(new ObjectMapper()), customerChangeLog, 2);
+    }
+
+    @Test
+    void importJson_ShouldPersistEveryCustomerAndFlushPerBatch() throws Exception {
+        String json = """
+                [
+                  {"id": 99, "name": "Max Mustermann", "birth": "1990-05-15", "adress": "Birk Centerpark 120", "phoneNumber": "1234567"},
+                  {"name": "Erika Mustermann", "credentials": {"username": "erika.mustermann"}},
+                  {"name": "John Doe"}
+                ]
+                """;
+
+        CustomerImportResultDTO result = customerImportService.importJson(stream(json));
+
+        assertThat(result.getImported()).isEqualTo(3);
+        ArgumentCaptor<Customer> persisted = ArgumentCaptor.forClass(Customer.class);
+        verify(entityManager, times(3)).persist(persisted.capture());
+        List<Customer> customers = persisted.getAllValues();
+        assertThat(customers).extracting(Customer::getName)
+                .containsExactly("Max Mustermann", "Erika Mustermann", "John Doe");
+        assertThat(customers.get(0).getId()).isNull();
+        assertThat(customers.get(1).getCredentials()).containsEntry("username", "erika.mustermann");
+        customers.forEach(customer -> verify(customerChangeLog).record(CustomerChange.Type.CREATED, customer));
+        // Once after the first batch of two, once for the remainder
+        verify(entityManager, times(2)).flush();
+        verify(entityManager, times(2)).clear();
+    }
+
+    @Test
+    void importCsv_ShouldMapColumnsByHeader() throws Exception {
+        String csv = """
+                phoneNumber,name,adress,username,password
+                1234567,Max Mustermann,"Birk Centerpark 120, Herning",max.mustermann,
+                
+                7654321,"Erika ""Eri"" Mustermann",Birk Centerpark 122,,
+                """;
+
+        CustomerImportResultDTO result = customerImportService.importCsv(stream(csv));
+
+        assertThat(result.getImported()).isEqualTo(2);
+        ArgumentCaptor<Customer> persisted = ArgumentCaptor.forClass(Customer.class);
+        verify(entityManager, times(2)).persist(persisted.capture());
+        Customer first = persisted.getAllValues().get(0);
+        assertThat(first.getName()).isEqualTo("Max Mustermann");
+        assertThat(first.getAdress()).isEqualTo("Birk Centerpark 120, Herning");
+        assertThat(first.getPhoneNumber()).isEqualTo("1234567");
+        assertThat(first.getCredentials()).containsOnlyKeys("username");
+        Customer second = persisted.getAllValues().get(1);
+        assertThat(second.getName()).isEqualTo("Erika \"Eri\" Mustermann");
+        assertThat(second.getCredentials()).isEmpty();
+    }
+
+    @Test
+    void importJson_WhenPayloadIsNotAnArray_ShouldReject() {
+        assertThatThrownBy(() -> customerImportService.importJson(stream("{\"name\": \"Max Mustermann\"}")))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(entityManager, never()).persist(any());
+    }
+
+    @Test
+    void importCsv_WhenHeaderHasNoName_ShouldReject() {
+        assertThatThrownBy(() -> customerImportService.importCsv(stream("adress,phoneNumber\nBirk Centerpark 120,1234567\n")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,142 @@
+package dk.au.customerservice.service;
+
+import dk.au.customerservice.dto.VersionedCustomerDTO;
+import dk.au.customerservice.model.Customer;
+import dk.au.customerservice.repo.CustomerRepo;
+import dk.au.customerservice.utils.CustomerMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@SpringJUnitConfig
+class CustomerServiceCacheTest {
+    @Configuration
+    @EnableCaching
+    @Import({CustomerService.class, CustomerCacheEvictor.class, CustomerMapper.class})
+    static class CacheTestConfig {
+        @Bean
+        CacheManager cacheManager() {
+            return new CaffeineCacheManager(CustomerService.CUSTOMER_CACHE, CustomerService.CREDENTIAL_VIEW_CACHE);
+        }
+    }
+
+    @MockBean
+    private CustomerRepo customerRepo;
+
+    @MockBean
+    private EntityManager entityManager;
+
+    @MockBean
+    private CustomerChangeLog customerChangeLog;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Customer testCustomer;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        testCustomer = new Customer("Max Mustermann", "2025-05-15", "Birk Centerpark 120", "1234567");
+        testCustomer.setId(1L);
+    }
+
+    @Test
+    void getCustomerById_ShouldOnlyHitRepositoryOnce() {
+        when(customerRepo.findById(1L)).thenReturn(Optional.of(testCustomer));
+
+        customerService.getCustomerById(1L);
+        Optional<VersionedCustomerDTO> cached = customerService.getCustomerById(1L);
+
+        assertThat(cached).isPresent();
+        assertThat(cached.get().customer().getName()).isEqualTo(testCustomer.getName());
+        verify(customerRepo, times(1)).findById(1L);
+    }
+
+    @Test
+    void getCustomerById_WhenMissing_ShouldNotCacheTheMiss() {
+        when(customerRepo.findById(1L)).thenReturn(Optional.empty());
+
+        customerService.getCustomerById(1L);
+        customerService.getCustomerById(1L);
+
+        verify(customerRepo, times(2)).findById(1L);
+    }
+
+    @Test
+    void updateCustomerCredentials_ShouldEvictCachedCustomer() {
+        when(customerRepo.findById(1L)).thenReturn(Optional.of(testCustomer));
+        when(customerRepo.saveAndFlush(any(Customer.class))).thenReturn(testCustomer);
+        customerService.getCustomerById(1L);
+
+        Map<String, String> credentials = new HashMap<>();
+        credentials.put("username", "max.mustermann");
+        customerService.updateCustomerCredentials(1L, credentials, null);
+        customerService.getCustomerById(1L);
+
+        // Initial load, the update itself and the reload after eviction
+        verify(customerRepo, times(3)).findById(1L);
+    }
+
+    @Test
+    void getCustomerById_ShouldCacheDTOsNotEntities() {
+        when(customerRepo.findById(1L)).thenReturn(Optional.of(testCustomer));
+
+        customerService.getCustomerById(1L);
+
+        // Spring unwraps the Optional, so the cache holds the DTO itself
+        assertThat(cacheManager.getCache(CustomerService.CUSTOMER_CACHE).get(1L).get())
+                .isInstanceOf(VersionedCustomerDTO.class);
+    }
+
+    @Test
+    void updateCustomerCredentials_InTransaction_ShouldEvictOnlyAfterCommit() {
+        when(customerRepo.findById(1L)).thenReturn(Optional.of(testCustomer));
+        when(customerRepo.saveAndFlush(any(Customer.class))).thenReturn(testCustomer);
+        customerService.getCustomerById(1L);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            customerService.updateCustomerCredentials(1L, new HashMap<>(), null);
+            assertThat(cacheManager.getCache(CustomerService.CUSTOMER_CACHE).get(1L)).isNotNull();
+
+            TransactionSynchronizationUtils.triggerAfterCommit();
+            assertThat(cacheManager.getCache(CustomerService.CUSTOMER_CACHE).get(1L)).isNull();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void deleteCustomer_ShouldEvictCachedCustomer() {
+        when(customerRepo.findById(1L)).thenReturn(Optional.of(testCustomer));
+        when(customerRepo.existsById(1L)).thenReturn(true);
+        customerService.getCustomerById(1L);
+
+        customerService.deleteCustomer(1L);
+
+        assertThat(cacheManager.getCache(CustomerService.CUSTOMER_CACHE).get(1L)).isNull();
+    }
+}
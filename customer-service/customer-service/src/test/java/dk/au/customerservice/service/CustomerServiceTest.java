@@ -1,20 +1,29 @@
 package dk.au.customerservice.service;
 
+import dk.au.customerservice.dto.VersionedCustomerDTO;
 import dk.au.customerservice.model.Customer;
+import dk.au.customerservice.model.CustomerChange;
 import dk.au.customerservice.repo.CustomerRepo;
+import dk.au.customerservice.utils.CustomerMapper;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
@@ -23,13 +32,23 @@ class CustomerServiceTest {
     @Mock
     private CustomerRepo customerRepo;
 
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private CustomerChangeLog customerChangeLog;
+
+    @Mock
+    private CustomerCacheEvictor customerCacheEvictor;
+
     private CustomerService customerService;
     private Customer testCustomer;
     private Map<String, String> testCredentials;
 
     @BeforeEach
     void setUp() {
-        customerService = new CustomerService(customerRepo);
+        customerService = new CustomerService(customerRepo, entityManager, customerChangeLog, new CustomerMapper(),
+                customerCacheEvictor);
         
         testCredentials = new HashMap<>();
         testCredentials.put("username", "max.mustermann");
@@ -55,26 +74,85 @@ class CustomerServiceTest {
         assertThat(customers.get(0).getCredentials()).isEqualTo(testCustomer.getCredentials());
     }
 
+    @Test
+    void getCustomersPage_ShouldStartFromZeroWhenNoCursorGiven() {
+        when(customerRepo.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(50))).thenReturn(List.of(testCustomer));
+
+        List<Customer> page = customerService.getCustomersPage(null, 50);
+
+        assertThat(page).containsExactly(testCustomer);
+    }
+
+    @Test
+    void forEachCustomer_ShouldHandleAndDetachEveryCustomer() {
+        Customer second = new Customer("Erika Mustermann", "2025-05-16", "Birk Centerpark 122", "7654321");
+        when(customerRepo.streamAll()).thenReturn(Stream.of(testCustomer, second));
+        List<Customer> handled = new ArrayList<>();
+
+        customerService.forEachCustomer(handled::add);
+
+        assertThat(handled).containsExactly(testCustomer, second);
+        verify(entityManager).detach(testCustomer);
+        verify(entityManager).detach(second);
+    }
+
     @Test
     void getCustomerById_WhenCustomerExists_ShouldReturnCustomer() {
         when(customerRepo.findById(1L)).thenReturn(Optional.of(testCustomer));
 
-        Optional<Customer> found = customerService.getCustomerById(1L);
+        testCustomer.setVersion(2L);
+        Optional<VersionedCustomerDTO> found = customerService.getCustomerById(1L);
 
         assertThat(found).isPresent();
-        assertThat(found.get().getName()).isEqualTo(testCustomer.getName());
-        assertThat(found.get().getCredentials()).isEqualTo(testCustomer.getCredentials());
+        assertThat(found.get().customer().getName()).isEqualTo(testCustomer.getName());
+        assertThat(found.get().customer().getCredentials()).isEqualTo(testCustomer.getCredentials());
+        assertThat(found.get().version()).isEqualTo(2L);
     }
 
     @Test
     void getCustomerById_WhenCustomerDoesNotExist_ShouldReturnEmpty() {
         when(customerRepo.findById(1L)).thenReturn(Optional.empty());
 
-        Optional<Customer> found = customerService.getCustomerById(1L);
+        Optional<VersionedCustomerDTO> found = customerService.getCustomerById(1L);
 
         assertThat(found).isEmpty();
     }
 
+    @Test
+    void getCustomerByUsername_ShouldUseUsernameLookup() {
+        when(customerRepo.findByUsername("max.mustermann")).thenReturn(Optional.of(testCustomer));
+
+        Optional<Customer> found = customerService.getCustomerByUsername("max.mustermann");
+
+        assertThat(found).contains(testCustomer);
+        assertThat(found.get().getUsername()).isEqualTo("max.mustermann");
+    }
+
+    @Test
+    void updateCustomerCredentials_ShouldKeepUsernameColumnInSync() {
+        when(customerRepo.findById(1L)).thenReturn(Optional.of(testCustomer));
+        when(customerRepo.saveAndFlush(any(Customer.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        Map<String, String> newCredentials = new HashMap<>();
+        newCredentials.put("username", "max.mustermann2");
+
+        Optional<Customer> updated = customerService.updateCustomerCredentials(1L, newCredentials, null);
+
+        assertThat(updated).isPresent();
+        assertThat(updated.get().getUsername()).isEqualTo("max.mustermann2");
+        verify(customerChangeLog).record(CustomerChange.Type.CREDENTIALS_UPDATED, updated.get());
+    }
+
+    @Test
+    void updateCustomerCredentials_WhenVersionDiffers_ShouldRejectUpdate() {
+        testCustomer.setVersion(3L);
+        when(customerRepo.findById(1L)).thenReturn(Optional.of(testCustomer));
+
+        assertThatThrownBy(() -> customerService.updateCustomerCredentials(1L, new HashMap<>(), 2L))
+                .isInstanceOf(OptimisticLockingFailureException.class);
+        verify(customerRepo, never()).saveAndFlush(any(Customer.class));
+        verifyNoInteractions(customerChangeLog);
+    }
+
     @Test
     void createCustomer_ShouldReturnCreatedCustomer() {
         when(customerRepo.save(any(Customer.class))).thenReturn(testCustomer);
@@ -84,11 +162,26 @@ class CustomerServiceTest {
         assertThat(created.getName()).isEqualTo(testCustomer.getName());
         assertThat(created.getCredentials()).isEqualTo(testCustomer.getCredentials());
         verify(customerRepo).save(testCustomer);
+        verify(customerChangeLog).record(CustomerChange.Type.CREATED, testCustomer);
     }
 
     @Test
     void deleteCustomer_ShouldCallRepository() {
+        when(customerRepo.existsById(1L)).thenReturn(true);
+
         customerService.deleteCustomer(1L);
         verify(customerRepo).deleteById(1L);
+        verify(customerChangeLog).recordDeleted(1L);
+        verify(customerCacheEvictor).evictAfterCommit(1L);
+    }
+
+    @Test
+    void deleteCustomer_WhenCustomerDoesNotExist_ShouldNotRecordChange() {
+        when(customerRepo.existsById(1L)).thenReturn(false);
+
+        customerService.deleteCustomer(1L);
+
+        verify(customerRepo, never()).deleteById(1L);
+        verifyNoInteractions(customerChangeLog);
     }
 } 
\ No newline at end of file
@@ -0,0 +1,83 @@
+package dk.au.customerservice.service;
+
+import dk.au.customerservice.dto.CustomerSearchResultDTO;
+import dk.au.customerservice.repo.CustomerRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InMemoryCustomerSearchTest {
+    @Mock
+    private CustomerRepo customerRepo;
+
+    private InMemoryCustomerSearch customerSearch;
+
+    @BeforeEach
+    void setUp() {
+        customerSearch = new InMemoryCustomerSearch(customerRepo);
+        when(customerRepo.streamSearchCandidates()).thenAnswer(invocation -> Stream.of(
+                new CustomerSearchResultDTO(1L, "Max Mustermann", "1234567", "Birk Centerpark 120"),
+                new CustomerSearchResultDTO(2L, "Erika Mustermann", "7654321", "Birk Centerpark 122"),
+                new CustomerSearchResultDTO(3L, "Maximilian Schmidt", "5550000", "Hovedgaden 1"),
+                new CustomerSearchResultDTO(4L, "John Doe", "1239999", "Main Street 2")));
+    }
+
+    @Test
+    void search_ShouldRankPrefixAboveSubstringMatches() {
+        List<CustomerSearchResultDTO> results = customerSearch.search("Max", 0, 10);
+
+        // Both names start with "max"; the shorter name is the closer trigram match
+        assertThat(results).extracting(CustomerSearchResultDTO::getId).containsExactly(1L, 3L);
+        assertThat(results).allSatisfy(result -> assertThat(result.getScore()).isGreaterThanOrEqualTo(2.0));
+    }
+
+    @Test
+    void search_ShouldMatchSubstringsOfTheName() {
+        List<CustomerSearchResultDTO> results = customerSearch.search("Mus", 0, 10);
+
+        assertThat(results).extracting(CustomerSearchResultDTO::getId).containsExactly(1L, 2L);
+        assertThat(results).allSatisfy(result -> assertThat(result.getScore()).isBetween(1.0, 2.0));
+    }
+
+    @Test
+    void search_ShouldMatchPhonePrefix() {
+        List<CustomerSearchResultDTO> results = customerSearch.search("123", 0, 10);
+
+        assertThat(results).extracting(CustomerSearchResultDTO::getId).containsExactlyInAnyOrder(1L, 4L);
+    }
+
+    @Test
+    void search_ShouldTolerateTypos() {
+        List<CustomerSearchResultDTO> results = customerSearch.search("mustremann", 0, 10);
+
+        assertThat(results).extracting(CustomerSearchResultDTO::getId).contains(1L, 2L);
+        assertThat(results).allSatisfy(result -> assertThat(result.getScore()).isLessThan(1.0));
+    }
+
+    @Test
+    void search_ShouldPageThroughRankedResults() {
+        List<CustomerSearchResultDTO> first = customerSearch.search("max", 0, 1);
+        List<CustomerSearchResultDTO> second = customerSearch.search("max", 1, 1);
+        List<CustomerSearchResultDTO> third = customerSearch.search("max", 2, 1);
+
+        assertThat(first).extracting(CustomerSearchResultDTO::getId).containsExactly(1L);
+        assertThat(second).extracting(CustomerSearchResultDTO::getId).containsExactly(3L);
+        assertThat(third).isEmpty();
+    }
+
+    @Test
+    void search_WhenPageIsBeyondIntRange_ShouldReturnEmptyPage() {
+        List<CustomerSearchResultDTO> results = customerSearch.search("Max", Integer.MAX_VALUE / 2, 100);
+
+        assertThat(results).isEmpty();
+    }
+}
@@ -0,0 +1,35 @@
+package dk.au.customerservice.utils;
+
+import dk.au.customerservice.utils.SyntheticCustomerFactory.SyntheticCustomer;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SyntheticCustomerFactoryTest {
+    private static final String HASH = "$2a$10$hash";
+
+    @Test
+    void next_WithSameSeed_ShouldProduceSameCustomers() {
+        assertThat(generate(42, 1000)).isEqualTo(generate(42, 1000));
+        assertThat(generate(42, 1000)).isNotEqualTo(generate(43, 1000));
+    }
+
+    @Test
+    void next_ShouldProduceUniqueUsernamesAndCarryTheHash() {
+        List<SyntheticCustomer> customers = generate(7, 10_000);
+
+        assertThat(customers).extracting(SyntheticCustomer::username).doesNotHaveDuplicates();
+        assertThat(customers).allSatisfy(customer -> {
+            assertThat(customer.passwordHash()).isEqualTo(HASH);
+            assertThat(customer.username()).endsWith("." + customer.id());
+        });
+    }
+
+    private static List<SyntheticCustomer> generate(long seed, int count) {
+        SyntheticCustomerFactory factory = new SyntheticCustomerFactory(seed, HASH);
+        return LongStream.rangeClosed(1, count).mapToObj(factory::next).toList();
+    }
+}
@@ -0,0 +1,29 @@
+package dk.au.exhibitionservice.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sets {@code version} to 0 on exhibitions stored before the column existed. A null version
+ * would make Spring Data treat the exhibition as new on save. Runs while the context starts,
+ * after Hibernate has added the column and before the web server accepts requests.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+@Slf4j
+public class ExhibitionVersionBackfill {
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    void backfill() {
+        int updated = jdbcTemplate.update("update exhibition set version = 0 where version is null");
+        if (updated > 0) {
+            log.info("Backfilled versions - Exhibitions: {}", updated);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package dk.au.exhibitionservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+@Configuration
+public class IdempotencyConfig {
+
+    /**
+     * Exhibition creation and registering a customer for an exhibition.
+     */
+    @Bean
+    public IdempotencyFilter idempotencyFilter(
+            @Value("${exhibition.idempotency.ttl:1h}") Duration ttl,
+            @Value("${exhibition.idempotency.max-entries:50000}") long maxEntries,
+            @Value("${exhibition.idempotency.wait-timeout:10s}") Duration waitTimeout) {
+        return new IdempotencyFilter(List.of(
+                new IdempotencyFilter.Endpoint("POST", "/api/exhibitions"),
+                new IdempotencyFilter.Endpoint("PATCH", "/api/exhibitions/*/customers/*")),
+                ttl, maxEntries, waitTimeout);
+    }
+}
@@ -0,0 +1,38 @@
+package dk.au.exhibitionservice.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.filter.Filter;
+import ch.qos.logback.core.spi.FilterReply;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Logback filter that keeps one in {@code rate} INFO and lower events of the loggers under
+ * {@code loggerPrefix}; WARN and ERROR always pass. Events carrying a request ID are sampled by
+ * that ID, so a sampled request keeps all of its lines.
+ */
+public class LogSamplingFilter extends Filter<ILoggingEvent> {
+    private final AtomicLong counter = new AtomicLong();
+    private int rate = 1;
+    private String loggerPrefix = "";
+
+    @Override
+    public FilterReply decide(ILoggingEvent event) {
+        if (rate <= 1 || event.getLevel().isGreaterOrEqual(Level.WARN)
+                || !event.getLoggerName().startsWith(loggerPrefix)) {
+            return FilterReply.NEUTRAL;
+        }
+        String requestId = event.getMDCPropertyMap().get(RequestIdFilter.MDC_KEY);
+        long key = requestId != null ? requestId.hashCode() : counter.getAndIncrement();
+        return Math.floorMod(key, rate) == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    public void setRate(int rate) {
+        this.rate = rate;
+    }
+
+    public void setLoggerPrefix(String loggerPrefix) {
+        this.loggerPrefix = loggerPrefix;
+    }
+}
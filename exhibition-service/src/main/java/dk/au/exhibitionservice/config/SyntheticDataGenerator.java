@@ -0,0 +1,178 @@
+package dk.au.exhibitionservice.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Bulk-loads synthetic exhibitions with customer registrations for performance work; enabled by
+ * the {@code synthetic-data} profile.
+ * <p>
+ * Rows are generated deterministically from {@code exhibition.synthetic.seed}. Registrations per
+ * exhibition follow an exponential distribution around the configured mean, so most exhibitions
+ * are small and a few are very large. Customer IDs are drawn from 1 to
+ * {@code exhibition.synthetic.customer-count}, the range customer-service's generator fills on an
+ * empty database. PostgreSQL is loaded with {@code COPY}, other databases with JDBC batches.
+ */
+@Component
+@Profile("synthetic-data")
+@Slf4j
+public class SyntheticDataGenerator implements ApplicationRunner {
+    private static final String[] CATEGORIES = {
+            "Technology", "Art", "Design", "Food", "Fashion", "Health", "Education", "Travel",
+            "Automotive", "Gaming", "Science", "Music", "Sports", "Home", "Business"};
+    private static final LocalDate FIRST_DATE = LocalDate.of(2025, 1, 1);
+    private static final int DATE_RANGE_DAYS = 3 * 365;
+
+    private static final String COPY_EXHIBITIONS_SQL =
+            "COPY exhibition (id, date, category, version) FROM STDIN WITH (FORMAT csv)";
+    private static final String COPY_REGISTRATIONS_SQL =
+            "COPY exhibition_customers (exhibition_id, customer_id) FROM STDIN WITH (FORMAT csv)";
+    private static final String INSERT_EXHIBITION_SQL =
+            "insert into exhibition (id, date, category, version) values (?, ?, ?, 0)";
+    private static final String INSERT_REGISTRATION_SQL =
+            "insert into exhibition_customers (exhibition_id, customer_id) values (?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ConfigurableApplicationContext applicationContext;
+    private final long exhibitions;
+    private final double registrationsPerExhibition;
+    private final long customerCount;
+    private final long seed;
+    private final int chunkSize;
+    private final boolean exitWhenDone;
+
+    public SyntheticDataGenerator(
+            JdbcTemplate jdbcTemplate,
+            ConfigurableApplicationContext applicationContext,
+            @Value("${exhibition.synthetic.exhibitions:10000}") long exhibitions,
+            @Value("${exhibition.synthetic.registrations-per-exhibition:50}") double registrationsPerExhibition,
+            @Value("${exhibition.synthetic.customer-count:100000}") long customerCount,
+            @Value("${exhibition.synthetic.seed:42}") long seed,
+            @Value("${exhibition.synthetic.chunk-size:1000}") int chunkSize,
+            @Value("${exhibition.synthetic.exit-when-done:false}") boolean exitWhenDone) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.applicationContext = applicationContext;
+        this.exhibitions = exhibitions;
+        this.registrationsPerExhibition = registrationsPerExhibition;
+        this.customerCount = customerCount;
+        this.seed = seed;
+        this.chunkSize = chunkSize;
+        this.exitWhenDone = exitWhenDone;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long startedAt = System.nanoTime();
+        long firstId = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from exhibition", Long.class) + 1;
+        boolean postgres = "PostgreSQL".equals(jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName()));
+        log.info("Generating synthetic exhibitions - Exhibitions: {}, MeanRegistrations: {}, Customers: {}, Seed: {}, Copy: {}",
+                exhibitions, registrationsPerExhibition, customerCount, seed, postgres);
+
+        SplittableRandom random = new SplittableRandom(seed);
+        long registrations = 0;
+        for (long generated = 0; generated < exhibitions; ) {
+            int size = (int) Math.min(chunkSize, exhibitions - generated);
+            List<SyntheticExhibition> chunk = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                chunk.add(next(random, firstId + generated + i));
+            }
+            if (postgres) {
+                copy(chunk);
+            } else {
+                insert(chunk);
+            }
+            generated += size;
+            registrations += chunk.stream().mapToLong(exhibition -> exhibition.customerIds().size()).sum();
+            log.info("Synthetic exhibition progress - Exhibitions: {}, Registrations: {}", generated, registrations);
+        }
+
+        // IDs were assigned here; move the identity column past them
+        long lastId = firstId + exhibitions - 1;
+        jdbcTemplate.execute("alter table exhibition alter column id restart with " + (lastId + 1));
+        log.info("Synthetic exhibitions generated - Exhibitions: {}, Registrations: {}, DurationMillis: {}",
+                exhibitions, registrations, (System.nanoTime() - startedAt) / 1_000_000);
+
+        if (exitWhenDone) {
+            System.exit(SpringApplication.exit(applicationContext, () -> 0));
+        }
+    }
+
+    private SyntheticExhibition next(SplittableRandom random, long id) {
+        LocalDate date = FIRST_DATE.plusDays(random.nextInt(DATE_RANGE_DAYS));
+        String category = CATEGORIES[random.nextInt(CATEGORIES.length)];
+        long wanted = Math.round(-registrationsPerExhibition * Math.log(1 - random.nextDouble()));
+        int count = (int) Math.min(wanted, customerCount);
+        Set<Long> customerIds = new HashSet<>(count * 2);
+        while (customerIds.size() < count) {
+            customerIds.add(1 + random.nextLong(customerCount));
+        }
+        return new SyntheticExhibition(id, date, category, new ArrayList<>(customerIds));
+    }
+
+    private void copy(List<SyntheticExhibition> chunk) {
+        StringBuilder exhibitionRows = new StringBuilder(chunk.size() * 32);
+        StringBuilder registrationRows = new StringBuilder();
+        for (SyntheticExhibition exhibition : chunk) {
+            exhibitionRows.append(exhibition.id()).append(',')
+                    .append(exhibition.date()).append(',')
+                    .append(exhibition.category()).append(",0\n");
+            for (Long customerId : exhibition.customerIds()) {
+                registrationRows.append(exhibition.id()).append(',').append(customerId).append('\n');
+            }
+        }
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            copyIn(connection, COPY_EXHIBITIONS_SQL, exhibitionRows);
+            copyIn(connection, COPY_REGISTRATIONS_SQL, registrationRows);
+            return null;
+        });
+    }
+
+    private static void copyIn(Connection connection, String sql, CharSequence rows) throws SQLException {
+        try {
+            connection.unwrap(PGConnection.class).getCopyAPI().copyIn(sql, new StringReader(rows.toString()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void insert(List<SyntheticExhibition> chunk) {
+        jdbcTemplate.batchUpdate(INSERT_EXHIBITION_SQL, chunk, chunk.size(), (ps, exhibition) -> {
+            ps.setLong(1, exhibition.id());
+            ps.setObject(2, exhibition.date());
+            ps.setString(3, exhibition.category());
+        });
+        List<long[]> registrations = new ArrayList<>();
+        for (SyntheticExhibition exhibition : chunk) {
+            exhibition.customerIds().forEach(customerId -> registrations.add(new long[]{exhibition.id(), customerId}));
+        }
+        jdbcTemplate.batchUpdate(INSERT_REGISTRATION_SQL, registrations, 1000, (ps, registration) -> {
+            ps.setLong(1, registration[0]);
+            ps.setLong(2, registration[1]);
+        });
+    }
+
+    private record SyntheticExhibition(long id, LocalDate date, String category, List<Long> customerIds) {
+    }
+}
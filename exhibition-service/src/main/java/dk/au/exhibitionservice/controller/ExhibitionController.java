@@ -1,13 +1,17 @@
-
+package dk.au.exhibitionservice.controller;
 
 import dk.au.exhibitionservice.dto.ExhibitionDTO;
 import dk.au.exhibitionservice.model.Exhibition;
 import dk.au.exhibitionservice.service.ExhibitionService;
+import dk.au.exhibitionservice.utils.ETags;
 import dk.au.exhibitionservice.utils.ExhibitionMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -27,24 +31,38 @@ public class ExhibitionController {
 
     @GetMapping
     @Operation(summary = "Get all exhibitions")
-    public ResponseEntity<List<ExhibitionDTO>> getAllExhibitions() {
+    public ResponseEntity<List<ExhibitionDTO>> getAllExhibitions(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.info("Getting all exhibitions");
+        // Checked against IDs and versions only, before any exhibition is loaded
+        String eTag = ETags.ofAll(exhibitionService.getExhibitionVersions());
+        if (ETags.matchesAny(ifNoneMatch, eTag)) {
+            log.debug("Exhibition list not modified");
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
         List<ExhibitionDTO> exhibitions = exhibitionService.getAllExhibitions()
                 .stream()
                 .map(exhibitionMapper::toDTO)
                 .collect(Collectors.toList());
         log.info("Retrieved {} exhibitions", exhibitions.size());
-        return ResponseEntity.ok(exhibitions);
+        return ResponseEntity.ok().eTag(eTag).body(exhibitions);
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Get exhibition by ID")
-    public ResponseEntity<ExhibitionDTO> getExhibitionById(@PathVariable Long id) {
+    public ResponseEntity<ExhibitionDTO> getExhibitionById(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.info("Getting exhibition by ID: {}", id);
         Optional<Exhibition> exhibition = exhibitionService.getExhibitionById(id);
         if (exhibition.isPresent()) {
+            String eTag = ETags.of(exhibition.get().getVersion());
+            if (ETags.matchesAny(ifNoneMatch, eTag)) {
+                log.debug("Exhibition {} not modified", id);
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+            }
             log.info("Exhibition found: {}", exhibition.get().getCategory());
-            return ResponseEntity.ok(exhibitionMapper.toDTO(exhibition.get()));
+            return ResponseEntity.ok().eTag(eTag).body(exhibitionMapper.toDTO(exhibition.get()));
         } else {
             log.warn("Exhibition with ID {} not found", id);
             return ResponseEntity.notFound().build();
@@ -86,17 +104,34 @@ public class ExhibitionController {
     }
 
     @PatchMapping("/{id}")
-    @Operation(summary = "Update an exhibition")
+    @Operation(summary = "Update an exhibition", description = "With If-Match the update only applies to that version of the exhibition")
     public ResponseEntity<ExhibitionDTO> updateExhibition(
             @PathVariable Long id,
-            @RequestBody ExhibitionDTO exhibitionDTO) {
+            @RequestBody ExhibitionDTO exhibitionDTO,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.info("Updating exhibition with ID: {}", id);
+        Long expectedVersion;
+        try {
+            expectedVersion = ETags.expectedVersion(ifMatch);
+        } catch (IllegalArgumentException e) {
+            log.warn("Malformed If-Match header for exhibition ID {}: {}", id, ifMatch);
+            return ResponseEntity.badRequest().build();
+        }
+
         Exhibition exhibitionUpdate = exhibitionMapper.toEntity(exhibitionDTO);
-        Optional<Exhibition> updatedExhibition = exhibitionService.updateExhibition(id, exhibitionUpdate);
+        Optional<Exhibition> updatedExhibition;
+        try {
+            updatedExhibition = exhibitionService.updateExhibition(id, exhibitionUpdate, expectedVersion);
+        } catch (OptimisticLockingFailureException e) {
+            log.warn("Precondition failed for update of exhibition ID {}: {}", id, e.getMessage());
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
         
         if (updatedExhibition.isPresent()) {
             log.info("Exhibition updated successfully: {}", updatedExhibition.get().getCategory());
-            return ResponseEntity.ok(exhibitionMapper.toDTO(updatedExhibition.get()));
+            return ResponseEntity.ok()
+                    .eTag(ETags.of(updatedExhibition.get().getVersion()))
+                    .body(exhibitionMapper.toDTO(updatedExhibition.get()));
         } else {
             log.warn("Exhibition with ID {} not found for update", id);
             return ResponseEntity.notFound().build();
@@ -118,16 +153,33 @@ public class ExhibitionController {
     }
 
     @PatchMapping("/{exhibitionId}/customers/{customerId}")
-    @Operation(summary = "Add customer to exhibition")
+    @Operation(summary = "Add customer to exhibition", description = "With If-Match the customer is only added to that version of the exhibition")
     public ResponseEntity<ExhibitionDTO> addCustomerToExhibition(
             @PathVariable Long exhibitionId,
-            @PathVariable Long customerId) {
+            @PathVariable Long customerId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.info("Adding customer {} to exhibition {}", customerId, exhibitionId);
-        Optional<Exhibition> updatedExhibition = exhibitionService.addCustomerToExhibition(exhibitionId, customerId);
+        Long expectedVersion;
+        try {
+            expectedVersion = ETags.expectedVersion(ifMatch);
+        } catch (IllegalArgumentException e) {
+            log.warn("Malformed If-Match header for exhibition ID {}: {}", exhibitionId, ifMatch);
+            return ResponseEntity.badRequest().build();
+        }
+
+        Optional<Exhibition> updatedExhibition;
+        try {
+            updatedExhibition = exhibitionService.addCustomerToExhibition(exhibitionId, customerId, expectedVersion);
+        } catch (OptimisticLockingFailureException e) {
+            log.warn("Precondition failed for adding customer {} to exhibition {}: {}", customerId, exhibitionId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
         
         if (updatedExhibition.isPresent()) {
             log.info("Customer {} added to exhibition {} successfully", customerId, exhibitionId);
-            return ResponseEntity.ok(exhibitionMapper.toDTO(updatedExhibition.get()));
+            return ResponseEntity.ok()
+                    .eTag(ETags.of(updatedExhibition.get().getVersion()))
+                    .body(exhibitionMapper.toDTO(updatedExhibition.get()));
         } else {
             log.warn("Exhibition with ID {} not found", exhibitionId);
             return ResponseEntity.notFound().build();
@@ -1,4 +1,4 @@
-
+package dk.au.exhibitionservice.dto;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -1,8 +1,15 @@
-import dk.au.exhibitionservice.model.Customer;
+package dk.au.exhibitionservice.dto;
 
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class Stand {
     private int id;
     private double squareMeters;
-    private Customer customer;
-
+    // Customers live in customer-service; exhibitions refer to them by ID only
+    private Long customerId;
 }
@@ -21,6 +21,10 @@ public class Exhibition {
     private LocalDate date;
     
     private String category;
+
+    // Optimistic lock and ETag source; incremented on every update
+    @Version
+    private Long version;
     
     @ElementCollection
     @CollectionTable(name = "exhibition_customers", 
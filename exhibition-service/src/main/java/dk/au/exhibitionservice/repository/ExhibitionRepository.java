@@ -2,6 +2,7 @@ package dk.au.exhibitionservice.repository;
 
 import dk.au.exhibitionservice.model.Exhibition;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
@@ -12,4 +13,8 @@ public interface ExhibitionRepository extends JpaRepository<Exhibition, Long> {
     List<Exhibition> findByCategory(String category);
     List<Exhibition> findByDate(LocalDate date);
     List<Exhibition> findByCategoryAndDate(String category, LocalDate date);
+
+    // IDs and versions only, enough to tell whether the exhibition list changed
+    @Query("select e.id as id, e.version as version from Exhibition e order by e.id")
+    List<ExhibitionVersionView> findAllVersions();
 } 
\ No newline at end of file
@@ -0,0 +1,7 @@
+package dk.au.exhibitionservice.repository;
+
+public interface ExhibitionVersionView {
+    Long getId();
+
+    Long getVersion();
+}
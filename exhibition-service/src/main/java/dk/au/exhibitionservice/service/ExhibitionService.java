@@ -2,8 +2,10 @@ package dk.au.exhibitionservice.service;
 
 import dk.au.exhibitionservice.model.Exhibition;
 import dk.au.exhibitionservice.repository.ExhibitionRepository;
+import dk.au.exhibitionservice.repository.ExhibitionVersionView;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
@@ -21,6 +23,10 @@ public class ExhibitionService {
         return exhibitionRepository.findAll();
     }
 
+    public List<ExhibitionVersionView> getExhibitionVersions() {
+        return exhibitionRepository.findAllVersions();
+    }
+
     public Optional<Exhibition> getExhibitionById(Long id) {
         log.debug("Getting exhibition by ID: {}", id);
         return exhibitionRepository.findById(id);
@@ -37,16 +43,23 @@ public class ExhibitionService {
     }
 
     public Exhibition createExhibition(Exhibition exhibition) {
-        log.debug("Creating exhibition: {}", exhibition);
+        log.debug("Creating exhibition - Category: {}", exhibition.getCategory());
         Exhibition savedExhibition = exhibitionRepository.save(exhibition);
         log.info("Exhibition created with ID: {}", savedExhibition.getId());
         return savedExhibition;
     }
 
-    public Optional<Exhibition> updateExhibition(Long id, Exhibition exhibitionUpdate) {
+    /**
+     * Applies the non-null fields of {@code exhibitionUpdate}. When {@code expectedVersion} is not
+     * null the update only goes through if the stored exhibition still has that version.
+     *
+     * @throws OptimisticLockingFailureException if the exhibition was changed in the meantime
+     */
+    public Optional<Exhibition> updateExhibition(Long id, Exhibition exhibitionUpdate, Long expectedVersion) {
         log.debug("Updating exhibition with ID: {}", id);
         return exhibitionRepository.findById(id)
                 .map(existingExhibition -> {
+                    checkVersion(existingExhibition, expectedVersion);
                     if (exhibitionUpdate.getDate() != null) {
                         existingExhibition.setDate(exhibitionUpdate.getDate());
                     }
@@ -73,10 +86,11 @@ public class ExhibitionService {
         return false;
     }
 
-    public Optional<Exhibition> addCustomerToExhibition(Long exhibitionId, Long customerId) {
+    public Optional<Exhibition> addCustomerToExhibition(Long exhibitionId, Long customerId, Long expectedVersion) {
         log.debug("Adding customer {} to exhibition {}", customerId, exhibitionId);
         return exhibitionRepository.findById(exhibitionId)
                 .map(exhibition -> {
+                    checkVersion(exhibition, expectedVersion);
                     if (!exhibition.getCustomerIds().contains(customerId)) {
                         exhibition.getCustomerIds().add(customerId);
                         Exhibition updated = exhibitionRepository.save(exhibition);
@@ -101,4 +115,11 @@ public class ExhibitionService {
                     return exhibition;
                 });
     }
-} 
\ No newline at end of file
+
+    private static void checkVersion(Exhibition exhibition, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(exhibition.getVersion())) {
+            throw new OptimisticLockingFailureException("Exhibition " + exhibition.getId() + " is at version "
+                    + exhibition.getVersion() + ", expected " + expectedVersion);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,81 @@
+package dk.au.exhibitionservice.utils;
+
+import dk.au.exhibitionservice.repository.ExhibitionVersionView;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Version-based entity tags. A single exhibition's ETag is its JPA {@code @Version} in quotes;
+ * a list's ETag is a digest of the IDs and versions it contains, so it changes on any create,
+ * update or delete.
+ */
+public final class ETags {
+    private ETags() {
+    }
+
+    public static String of(Long version) {
+        return "\"" + (version != null ? version : 0L) + "\"";
+    }
+
+    public static String ofAll(List<ExhibitionVersionView> versions) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(2 * Long.BYTES);
+        for (ExhibitionVersionView view : versions) {
+            buffer.clear();
+            buffer.putLong(view.getId());
+            buffer.putLong(view.getVersion() != null ? view.getVersion() : 0L);
+            digest.update(buffer.array());
+        }
+        return "\"" + HexFormat.of().formatHex(digest.digest(), 0, 8) + "\"";
+    }
+
+    /**
+     * If-None-Match check: weak comparison against each listed tag, or {@code *}.
+     */
+    public static boolean matchesAny(String header, String eTag) {
+        if (header == null || header.isBlank()) {
+            return false;
+        }
+        for (String candidate : header.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || stripWeak(tag).equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the version an If-Match header requires, or null when there is no precondition
+     * ({@code *} or no header).
+     *
+     * @throws IllegalArgumentException if the header is not a single version tag
+     */
+    public static Long expectedVersion(String header) {
+        if (header == null || header.isBlank() || header.trim().equals("*")) {
+            return null;
+        }
+        String tag = header.trim();
+        if (tag.length() < 3 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            throw new IllegalArgumentException("If-Match must be a single quoted version tag");
+        }
+        try {
+            return Long.parseLong(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("If-Match must be a single quoted version tag", e);
+        }
+    }
+
+    private static String stripWeak(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+}
@@ -12,7 +12,8 @@ public class ExhibitionMapper {
                 exhibition.getId(),
                 exhibition.getDate(),
                 exhibition.getCategory(),
-                exhibition.getCustomerIds()
+                exhibition.getCustomerIds(),
+                null
         );
     }
 
@@ -0,0 +1,183 @@
+package dk.au.exhibitionservice.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Built through IdempotencyConfig so the exhibition endpoint list itself is under test
+class IdempotencyFilterTest {
+    private IdempotencyFilter filter;
+    private AtomicInteger executions;
+
+    @BeforeEach
+    void setUp() {
+        filter = new IdempotencyConfig().idempotencyFilter(Duration.ofMinutes(1), 100, Duration.ofSeconds(5));
+        executions = new AtomicInteger();
+    }
+
+    private FilterChain chain(int status) {
+        return (request, response) -> {
+            int execution = executions.incrementAndGet();
+            request.getInputStream().readAllBytes();
+            HttpServletResponse httpResponse = (HttpServletResponse) response;
+            httpResponse.setStatus(status);
+            httpResponse.setContentType("application/json");
+            httpResponse.getWriter().write("{\"execution\":" + execution + "}");
+        };
+    }
+
+    private static MockHttpServletRequest request(String method, String uri, String key, String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        if (key != null) {
+            request.addHeader(IdempotencyFilter.HEADER, key);
+        }
+        if (body != null) {
+            request.setContentType("application/json");
+            request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        }
+        return request;
+    }
+
+    private MockHttpServletResponse send(MockHttpServletRequest request, FilterChain chain) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    @Test
+    void doFilter_ShouldReplayCustomerRegistration() throws Exception {
+        MockHttpServletResponse first = send(request("PATCH", "/api/exhibitions/7/customers/42", "key-1", null), chain(200));
+        MockHttpServletResponse retry = send(request("PATCH", "/api/exhibitions/7/customers/42", "key-1", null), chain(200));
+
+        assertThat(executions).hasValue(1);
+        assertThat(retry.getContentAsString()).isEqualTo(first.getContentAsString());
+        assertThat(retry.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isEqualTo("true");
+    }
+
+    @Test
+    void doFilter_ShouldKeepRegistrationsForDifferentCustomersApart() throws Exception {
+        send(request("PATCH", "/api/exhibitions/7/customers/42", "key-1", null), chain(200));
+        MockHttpServletResponse other = send(request("PATCH", "/api/exhibitions/7/customers/43", "key-1", null), chain(200));
+
+        assertThat(executions).hasValue(2);
+        assertThat(other.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isNull();
+    }
+
+    @Test
+    void doFilter_ShouldReplayExhibitionCreation() throws Exception {
+        send(request("POST", "/api/exhibitions", "key-1", "{\"category\":\"Art\"}"), chain(200));
+        MockHttpServletResponse retry = send(request("POST", "/api/exhibitions", "key-1", "{\"category\":\"Art\"}"), chain(200));
+        MockHttpServletResponse reused = send(request("POST", "/api/exhibitions", "key-1", "{\"category\":\"Tech\"}"), chain(200));
+
+        assertThat(executions).hasValue(1);
+        assertThat(retry.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(reused.getStatus()).isEqualTo(422);
+    }
+
+    private FilterChain slowChain(CountDownLatch started, CountDownLatch release) {
+        return (request, response) -> {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            chain(200).doFilter(request, response);
+        };
+    }
+
+    @Test
+    void doFilter_ShouldLetConcurrentDuplicateRegistrationsWaitForTheFirst() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        FilterChain slowChain = slowChain(started, release);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<MockHttpServletResponse> first = executor.submit(() ->
+                    send(request("PATCH", "/api/exhibitions/7/customers/42", "key-1", null), slowChain));
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            Future<MockHttpServletResponse> duplicate = executor.submit(() ->
+                    send(request("PATCH", "/api/exhibitions/7/customers/42", "key-1", null), slowChain));
+
+            Thread.sleep(100);
+            assertThat(duplicate.isDone()).isFalse();
+            release.countDown();
+
+            assertThat(first.get(5, TimeUnit.SECONDS).getContentAsString()).isEqualTo("{\"execution\":1}");
+            assertThat(duplicate.get(5, TimeUnit.SECONDS).getContentAsString()).isEqualTo("{\"execution\":1}");
+            assertThat(executions).hasValue(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void doFilter_WhenStoredResponsesOverflow_ShouldStillHoldDuplicatesOfARunningRegistration() throws Exception {
+        filter = new IdempotencyConfig().idempotencyFilter(Duration.ofMinutes(1), 1, Duration.ofSeconds(5));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        FilterChain slowChain = slowChain(started, release);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<MockHttpServletResponse> first = executor.submit(() ->
+                    send(request("PATCH", "/api/exhibitions/7/customers/42", "key-1", null), slowChain));
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            for (int i = 2; i <= 50; i++) {
+                send(request("PATCH", "/api/exhibitions/7/customers/" + (100 + i), "key-" + i, null), chain(200));
+            }
+            Future<MockHttpServletResponse> duplicate = executor.submit(() ->
+                    send(request("PATCH", "/api/exhibitions/7/customers/42", "key-1", null), slowChain));
+
+            Thread.sleep(100);
+            assertThat(duplicate.isDone()).isFalse();
+            release.countDown();
+
+            String firstBody = first.get(5, TimeUnit.SECONDS).getContentAsString();
+            assertThat(duplicate.get(5, TimeUnit.SECONDS).getContentAsString()).isEqualTo(firstBody);
+            assertThat(executions).hasValue(50);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void doFilter_ShouldIgnoreKeyOnOtherExhibitionEndpoints() throws Exception {
+        send(request("PATCH", "/api/exhibitions/7", "key-1", "{}"), chain(200));
+        send(request("PATCH", "/api/exhibitions/7", "key-1", "{}"), chain(200));
+        send(request("DELETE", "/api/exhibitions/7/customers/42", "key-2", null), chain(200));
+        send(request("DELETE", "/api/exhibitions/7/customers/42", "key-2", null), chain(200));
+        send(request("PATCH", "/api/exhibitions/7/customers/42/extra", "key-3", null), chain(200));
+        send(request("PATCH", "/api/exhibitions/7/customers/42/extra", "key-3", null), chain(200));
+
+        assertThat(executions).hasValue(6);
+    }
+
+    @Test
+    void doFilter_ShouldNotReplayAnotherCallersRegistration() throws Exception {
+        MockHttpServletRequest first = request("PATCH", "/api/exhibitions/7/customers/42", "key-1", null);
+        first.addHeader("Authorization", "Bearer client-a");
+        send(first, chain(200));
+        MockHttpServletRequest other = request("PATCH", "/api/exhibitions/7/customers/42", "key-1", null);
+        other.addHeader("Authorization", "Bearer client-b");
+        MockHttpServletResponse response = send(other, chain(200));
+
+        assertThat(executions).hasValue(2);
+        assertThat(response.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isNull();
+    }
+}
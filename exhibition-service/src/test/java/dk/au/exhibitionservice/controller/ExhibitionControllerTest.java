@@ -0,0 +1,147 @@
+package dk.au.exhibitionservice.controller;
+
+import dk.au.exhibitionservice.dto.ExhibitionDTO;
+import dk.au.exhibitionservice.model.Exhibition;
+import dk.au.exhibitionservice.repository.ExhibitionVersionView;
+import dk.au.exhibitionservice.service.ExhibitionService;
+import dk.au.exhibitionservice.utils.ETags;
+import dk.au.exhibitionservice.utils.ExhibitionMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExhibitionControllerTest {
+    @Mock
+    private ExhibitionService exhibitionService;
+
+    private final ExhibitionMapper exhibitionMapper = new ExhibitionMapper();
+
+    private ExhibitionController exhibitionController;
+    private Exhibition exhibition;
+
+    @BeforeEach
+    void setUp() {
+        exhibitionController = new ExhibitionController(exhibitionService, exhibitionMapper);
+        exhibition = new Exhibition(1L, LocalDate.of(2025, 6, 15), "Art & Culture", 3L, new ArrayList<>(List.of(10L)));
+    }
+
+    private static ExhibitionVersionView version(Long id, Long version) {
+        ExhibitionVersionView view = mock(ExhibitionVersionView.class);
+        when(view.getId()).thenReturn(id);
+        when(view.getVersion()).thenReturn(version);
+        return view;
+    }
+
+    @Test
+    void getExhibitionById_ShouldReturnVersionETag() {
+        when(exhibitionService.getExhibitionById(1L)).thenReturn(Optional.of(exhibition));
+
+        ResponseEntity<ExhibitionDTO> response = exhibitionController.getExhibitionById(1L, null);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getETag()).isEqualTo("\"3\"");
+        assertThat(response.getBody().getCategory()).isEqualTo("Art & Culture");
+    }
+
+    @Test
+    void getExhibitionById_WhenETagMatches_ShouldReturn304WithoutBody() {
+        when(exhibitionService.getExhibitionById(1L)).thenReturn(Optional.of(exhibition));
+
+        ResponseEntity<ExhibitionDTO> response = exhibitionController.getExhibitionById(1L, "W/\"3\"");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(response.getHeaders().getETag()).isEqualTo("\"3\"");
+        assertThat(response.getBody()).isNull();
+    }
+
+    @Test
+    void getAllExhibitions_WhenListETagMatches_ShouldReturn304WithoutLoadingExhibitions() {
+        List<ExhibitionVersionView> versions = List.of(version(1L, 3L));
+        when(exhibitionService.getExhibitionVersions()).thenReturn(versions);
+
+        ResponseEntity<List<ExhibitionDTO>> response = exhibitionController.getAllExhibitions(ETags.ofAll(versions));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        verify(exhibitionService, never()).getAllExhibitions();
+    }
+
+    @Test
+    void getAllExhibitions_WhenListChanged_ShouldReturnListWithNewETag() {
+        List<ExhibitionVersionView> versions = List.of(version(1L, 4L));
+        when(exhibitionService.getExhibitionVersions()).thenReturn(versions);
+        when(exhibitionService.getAllExhibitions()).thenReturn(List.of(exhibition));
+        String staleETag = ETags.ofAll(List.of(version(1L, 3L)));
+
+        ResponseEntity<List<ExhibitionDTO>> response = exhibitionController.getAllExhibitions(staleETag);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getETag()).isEqualTo(ETags.ofAll(versions)).isNotEqualTo(staleETag);
+        assertThat(response.getBody()).hasSize(1);
+    }
+
+    @Test
+    void updateExhibition_WhenIfMatchIsStale_ShouldReturn412() {
+        when(exhibitionService.updateExhibition(eq(1L), any(Exhibition.class), eq(2L)))
+                .thenThrow(new OptimisticLockingFailureException("Exhibition 1 is at version 3, expected 2"));
+
+        ResponseEntity<ExhibitionDTO> response = exhibitionController.updateExhibition(1L,
+                new ExhibitionDTO(null, null, "Modern Art", null, null), "\"2\"");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.PRECONDITION_FAILED);
+    }
+
+    @Test
+    void updateExhibition_WhenIfMatchMatches_ShouldReturnNewETag() {
+        Exhibition updated = new Exhibition(1L, exhibition.getDate(), "Modern Art", 4L, exhibition.getCustomerIds());
+        when(exhibitionService.updateExhibition(eq(1L), any(Exhibition.class), eq(3L))).thenReturn(Optional.of(updated));
+
+        ResponseEntity<ExhibitionDTO> response = exhibitionController.updateExhibition(1L,
+                new ExhibitionDTO(null, null, "Modern Art", null, null), "\"3\"");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getETag()).isEqualTo("\"4\"");
+    }
+
+    @Test
+    void updateExhibition_WhenIfMatchIsList_ShouldReturn400() {
+        ResponseEntity<ExhibitionDTO> response = exhibitionController.updateExhibition(1L,
+                new ExhibitionDTO(null, null, "Modern Art", null, null), "\"2\", \"3\"");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        verifyNoInteractions(exhibitionService);
+    }
+
+    @Test
+    void addCustomerToExhibition_WhenIfMatchIsStale_ShouldReturn412() {
+        when(exhibitionService.addCustomerToExhibition(1L, 20L, 2L))
+                .thenThrow(new OptimisticLockingFailureException("Exhibition 1 is at version 3, expected 2"));
+
+        ResponseEntity<ExhibitionDTO> response = exhibitionController.addCustomerToExhibition(1L, 20L, "\"2\"");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.PRECONDITION_FAILED);
+    }
+
+    @Test
+    void addCustomerToExhibition_WhenIfMatchIsList_ShouldReturn400() {
+        ResponseEntity<ExhibitionDTO> response = exhibitionController.addCustomerToExhibition(1L, 20L, "\"2\", \"3\"");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        verifyNoInteractions(exhibitionService);
+    }
+}
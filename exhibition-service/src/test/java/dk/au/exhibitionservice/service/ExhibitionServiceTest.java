@@ -0,0 +1,88 @@
+package dk.au.exhibitionservice.service;
+
+import dk.au.exhibitionservice.model.Exhibition;
+import dk.au.exhibitionservice.repository.ExhibitionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExhibitionServiceTest {
+    @Mock
+    private ExhibitionRepository exhibitionRepository;
+
+    @InjectMocks
+    private ExhibitionService exhibitionService;
+
+    private Exhibition exhibition;
+
+    @BeforeEach
+    void setUp() {
+        exhibition = new Exhibition(1L, LocalDate.of(2025, 6, 15), "Art & Culture", 3L, new ArrayList<>(List.of(10L)));
+    }
+
+    @Test
+    void updateExhibition_WhenVersionMatches_ShouldSave() {
+        when(exhibitionRepository.findById(1L)).thenReturn(Optional.of(exhibition));
+        when(exhibitionRepository.save(any(Exhibition.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Optional<Exhibition> result = exhibitionService.updateExhibition(1L,
+                new Exhibition(null, "Modern Art"), 3L);
+
+        assertThat(result).get().extracting(Exhibition::getCategory).isEqualTo("Modern Art");
+        verify(exhibitionRepository).save(exhibition);
+    }
+
+    @Test
+    void updateExhibition_WhenVersionIsStale_ShouldThrowAndNotSave() {
+        when(exhibitionRepository.findById(1L)).thenReturn(Optional.of(exhibition));
+
+        assertThatThrownBy(() -> exhibitionService.updateExhibition(1L, new Exhibition(null, "Modern Art"), 2L))
+                .isInstanceOf(OptimisticLockingFailureException.class);
+        assertThat(exhibition.getCategory()).isEqualTo("Art & Culture");
+        verify(exhibitionRepository, never()).save(any());
+    }
+
+    @Test
+    void updateExhibition_WithoutExpectedVersion_ShouldSave() {
+        when(exhibitionRepository.findById(1L)).thenReturn(Optional.of(exhibition));
+        when(exhibitionRepository.save(any(Exhibition.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        assertThat(exhibitionService.updateExhibition(1L, new Exhibition(null, "Modern Art"), null)).isPresent();
+        verify(exhibitionRepository).save(exhibition);
+    }
+
+    @Test
+    void addCustomerToExhibition_WhenVersionIsStale_ShouldThrowAndNotAdd() {
+        when(exhibitionRepository.findById(1L)).thenReturn(Optional.of(exhibition));
+
+        assertThatThrownBy(() -> exhibitionService.addCustomerToExhibition(1L, 20L, 4L))
+                .isInstanceOf(OptimisticLockingFailureException.class);
+        assertThat(exhibition.getCustomerIds()).containsExactly(10L);
+        verify(exhibitionRepository, never()).save(any());
+    }
+
+    @Test
+    void addCustomerToExhibition_WhenVersionMatches_ShouldAddCustomer() {
+        when(exhibitionRepository.findById(1L)).thenReturn(Optional.of(exhibition));
+        when(exhibitionRepository.save(any(Exhibition.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Optional<Exhibition> result = exhibitionService.addCustomerToExhibition(1L, 20L, 3L);
+
+        assertThat(result).get().extracting(Exhibition::getCustomerIds).isEqualTo(List.of(10L, 20L));
+    }
+}
@@ -0,0 +1,70 @@
+package dk.au.exhibitionservice.utils;
+
+import dk.au.exhibitionservice.repository.ExhibitionVersionView;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ETagsTest {
+    static ExhibitionVersionView view(Long id, Long version) {
+        return new ExhibitionVersionView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getVersion() {
+                return version;
+            }
+        };
+    }
+
+    @Test
+    void ofAll_ShouldBeStableForSameIdsAndVersions() {
+        String first = ETags.ofAll(List.of(view(1L, 0L), view(2L, 3L)));
+        String second = ETags.ofAll(List.of(view(1L, 0L), view(2L, 3L)));
+
+        assertThat(first).isEqualTo(second).startsWith("\"").endsWith("\"");
+    }
+
+    @Test
+    void ofAll_ShouldChangeOnUpdateCreateAndDelete() {
+        String original = ETags.ofAll(List.of(view(1L, 0L), view(2L, 3L)));
+
+        assertThat(ETags.ofAll(List.of(view(1L, 1L), view(2L, 3L)))).isNotEqualTo(original);
+        assertThat(ETags.ofAll(List.of(view(1L, 0L), view(2L, 3L), view(3L, 0L)))).isNotEqualTo(original);
+        assertThat(ETags.ofAll(List.of(view(2L, 3L)))).isNotEqualTo(original);
+    }
+
+    @Test
+    void ofAll_ShouldTreatMissingVersionAsZero() {
+        assertThat(ETags.ofAll(List.of(view(1L, null)))).isEqualTo(ETags.ofAll(List.of(view(1L, 0L))));
+    }
+
+    @Test
+    void matchesAny_ShouldAcceptWeakTagsListsAndWildcard() {
+        assertThat(ETags.matchesAny("W/\"3\"", "\"3\"")).isTrue();
+        assertThat(ETags.matchesAny("\"1\", \"3\"", "\"3\"")).isTrue();
+        assertThat(ETags.matchesAny("*", "\"3\"")).isTrue();
+        assertThat(ETags.matchesAny("\"2\"", "\"3\"")).isFalse();
+        assertThat(ETags.matchesAny(null, "\"3\"")).isFalse();
+    }
+
+    @Test
+    void expectedVersion_ShouldParseSingleTagAndIgnoreWildcard() {
+        assertThat(ETags.expectedVersion("\"7\"")).isEqualTo(7L);
+        assertThat(ETags.expectedVersion("*")).isNull();
+        assertThat(ETags.expectedVersion(null)).isNull();
+    }
+
+    @Test
+    void expectedVersion_WhenHeaderIsListOrMalformed_ShouldThrow() {
+        assertThatThrownBy(() -> ETags.expectedVersion("\"1\", \"2\"")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ETags.expectedVersion("W/\"1\"")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ETags.expectedVersion("1")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
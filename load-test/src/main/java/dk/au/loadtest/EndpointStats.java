@@ -0,0 +1,56 @@
+package dk.au.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram and error counts for one endpoint or scenario. Latencies are kept in
+ * microseconds; failed calls that got a response are included so slow failures still show up.
+ */
+public class EndpointStats {
+    private final Histogram latencies = new ConcurrentHistogram(3);
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    public void record(long elapsedNanos, boolean success) {
+        latencies.recordValue(Math.max(1, TimeUnit.NANOSECONDS.toMicros(elapsedNanos)));
+        if (!success) {
+            errors.increment();
+        }
+    }
+
+    /**
+     * An arrival that was never started because the concurrency limit was reached.
+     */
+    public void recordDropped() {
+        dropped.increment();
+    }
+
+    public long count() {
+        return latencies.getTotalCount() + dropped.sum();
+    }
+
+    public long errors() {
+        return errors.sum() + dropped.sum();
+    }
+
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    public double errorRate() {
+        long count = count();
+        return count == 0 ? 0 : (double) errors() / count;
+    }
+
+    public double percentileMillis(double percentile) {
+        return latencies.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    public double maxMillis() {
+        return latencies.getMaxValue() / 1000.0;
+    }
+}
@@ -0,0 +1,88 @@
+package dk.au.loadtest;
+
+import dk.au.loadtest.scenario.Scenario;
+import dk.au.loadtest.scenario.ScenarioMix;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load: scenarios start on a fixed schedule regardless of how fast earlier ones finish,
+ * so a slow system sees a growing backlog the way it would in production. Scenario latency is
+ * measured from the scheduled start, not the actual one, so a stalled generator cannot hide
+ * queueing delay. Arrivals beyond the concurrency limit are dropped and counted as errors.
+ */
+public class LoadGenerator {
+    private final ScenarioMix mix;
+    private final Metrics metrics;
+    private final double arrivalsPerSecond;
+    private final Duration warmup;
+    private final Duration duration;
+    private final int maxConcurrency;
+
+    public LoadGenerator(ScenarioMix mix, Metrics metrics, double arrivalsPerSecond,
+                         Duration warmup, Duration duration, int maxConcurrency) {
+        if (arrivalsPerSecond <= 0) {
+            throw new IllegalArgumentException("arrival-rate must be positive");
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("No scenario has a positive weight");
+        }
+        this.mix = mix;
+        this.metrics = metrics;
+        this.arrivalsPerSecond = arrivalsPerSecond;
+        this.warmup = warmup;
+        this.duration = duration;
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    /**
+     * Runs warmup and measurement, waits for in-flight scenarios and returns the measured wall time.
+     */
+    public Duration run() {
+        Semaphore permits = new Semaphore(maxConcurrency);
+        double intervalNanos = 1_000_000_000d / arrivalsPerSecond;
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+        boolean measuring = warmup.isZero();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long arrival = 0; ; arrival++) {
+                long scheduled = start + (long) (arrival * intervalNanos);
+                if (scheduled >= end) {
+                    break;
+                }
+                if (!measuring && scheduled >= measureFrom) {
+                    metrics.reset();
+                    measuring = true;
+                }
+                long wait;
+                while ((wait = scheduled - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+
+                Scenario scenario = mix.next();
+                EndpointStats stats = metrics.stats("scenario." + scenario.name());
+                if (!permits.tryAcquire()) {
+                    stats.recordDropped();
+                    continue;
+                }
+                executor.execute(() -> {
+                    try {
+                        scenario.run();
+                        stats.record(System.nanoTime() - scheduled, true);
+                    } catch (RuntimeException e) {
+                        stats.record(System.nanoTime() - scheduled, false);
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        }
+        return Duration.ofNanos(System.nanoTime() - measureFrom);
+    }
+}
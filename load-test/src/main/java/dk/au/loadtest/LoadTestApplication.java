@@ -0,0 +1,73 @@
+package dk.au.loadtest;
+
+import dk.au.loadtest.scenario.ContractSigningScenario;
+import dk.au.loadtest.scenario.CustomerListingScenario;
+import dk.au.loadtest.scenario.CustomerLookupScenario;
+import dk.au.loadtest.scenario.CustomerSearchScenario;
+import dk.au.loadtest.scenario.ScenarioMix;
+import dk.au.loadtest.stub.StubServices;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.SortedMap;
+
+/**
+ * Drives the configured scenario mix against the services, prints per-endpoint latency
+ * percentiles and error rates, and exits with status 1 when an SLO is violated.
+ */
+public class LoadTestApplication {
+    static final int SLO_VIOLATED = 1;
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.load(args);
+
+        StubServices stub = null;
+        URI customerService = URI.create(config.get("customer.base-url"));
+        URI credentialService = URI.create(config.get("credential.base-url"));
+        URI exhibitionService = URI.create(config.get("exhibition.base-url"));
+        if (config.getBoolean("stub")) {
+            stub = new StubServices(config.getInt("stub.port"), config.getDuration("stub.latency"),
+                    config.getDuration("stub.hashing-latency"));
+            customerService = stub.baseUri();
+            credentialService = stub.baseUri();
+            exhibitionService = stub.baseUri();
+            System.out.println("Running against stub services on " + stub.baseUri());
+        }
+
+        Metrics metrics = new Metrics();
+        ServiceClient client = new ServiceClient(metrics, config.getDuration("request-timeout"));
+        ScenarioMix mix = new ScenarioMix()
+                .add(new ContractSigningScenario(client, customerService, credentialService, exhibitionService,
+                        config.getInt("exhibition.count")), config.getInt("scenario.contract-signing.weight"))
+                .add(new CustomerLookupScenario(client, customerService, config.getInt("customer.count")),
+                        config.getInt("scenario.customer-lookup.weight"))
+                .add(new CustomerListingScenario(client, customerService, config.getInt("customer.count")),
+                        config.getInt("scenario.customer-listing.weight"))
+                .add(new CustomerSearchScenario(client, customerService),
+                        config.getInt("scenario.customer-search.weight"));
+
+        double arrivalRate = config.getDouble("arrival-rate");
+        Duration warmup = config.getDuration("warmup");
+        Duration duration = config.getDuration("duration");
+        System.out.printf("Arrival rate %.1f/s, warmup %d s, duration %d s, max concurrency %d%n",
+                arrivalRate, warmup.toSeconds(), duration.toSeconds(), config.getInt("max-concurrency"));
+
+        Duration measured;
+        try {
+            measured = new LoadGenerator(mix, metrics, arrivalRate, warmup, duration,
+                    config.getInt("max-concurrency")).run();
+        } finally {
+            if (stub != null) {
+                stub.close();
+            }
+        }
+
+        SortedMap<String, EndpointStats> stats = metrics.snapshot();
+        List<String> violations = new SloCheck(config.withPrefix("slo.")).violations(stats);
+        Report.print(System.out, stats, measured, violations);
+        if (!violations.isEmpty()) {
+            System.exit(SLO_VIOLATED);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package dk.au.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Run settings. Defaults come from load-test.properties on the classpath, then an optional
+ * --config=file.properties, then individual --key=value arguments, each overriding the previous.
+ */
+public class LoadTestConfig {
+    private static final String DEFAULTS = "/load-test.properties";
+
+    private final Properties properties;
+
+    LoadTestConfig(Properties properties) {
+        this.properties = properties;
+    }
+
+    public static LoadTestConfig load(String[] args) throws IOException {
+        Properties properties = new Properties();
+        try (InputStream defaults = LoadTestConfig.class.getResourceAsStream(DEFAULTS)) {
+            if (defaults == null) {
+                throw new IllegalStateException("Missing " + DEFAULTS + " on the classpath");
+            }
+            properties.load(defaults);
+        }
+
+        Map<String, String> overrides = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --key=value but got: " + arg);
+            }
+            int separator = arg.indexOf('=');
+            overrides.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+
+        String configFile = overrides.remove("config");
+        if (configFile != null) {
+            try (Reader reader = Files.newBufferedReader(Path.of(configFile))) {
+                properties.load(reader);
+            }
+        }
+        properties.putAll(overrides);
+        return new LoadTestConfig(properties);
+    }
+
+    public String get(String key) {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing setting: " + key);
+        }
+        return value.trim();
+    }
+
+    public String get(String key, String defaultValue) {
+        String value = properties.getProperty(key);
+        return value == null ? defaultValue : value.trim();
+    }
+
+    public int getInt(String key) {
+        return Integer.parseInt(get(key));
+    }
+
+    public double getDouble(String key) {
+        return Double.parseDouble(get(key));
+    }
+
+    public boolean getBoolean(String key) {
+        return Boolean.parseBoolean(get(key));
+    }
+
+    public Duration getDuration(String key) {
+        return parseDuration(get(key));
+    }
+
+    /**
+     * All settings below a prefix with the prefix stripped, e.g. "slo." turns
+     * "slo.credential.generate.p99-ms" into "credential.generate.p99-ms".
+     */
+    public Map<String, String> withPrefix(String prefix) {
+        Map<String, String> result = new LinkedHashMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            if (key.startsWith(prefix)) {
+                result.put(key.substring(prefix.length()), properties.getProperty(key).trim());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Accepts "250ms", "30s" and "5m"; a bare number is read as seconds.
+     */
+    static Duration parseDuration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        if (value.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        if (value.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        return Duration.ofSeconds(Long.parseLong(value));
+    }
+}
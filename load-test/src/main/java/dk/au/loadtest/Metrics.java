@@ -0,0 +1,28 @@
+package dk.au.loadtest;
+
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Stats per endpoint name. Scenario-level stats are stored under "scenario.&lt;name&gt;".
+ */
+public class Metrics {
+    private volatile Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+
+    public EndpointStats stats(String name) {
+        return stats.computeIfAbsent(name, key -> new EndpointStats());
+    }
+
+    /**
+     * Starts a fresh measurement window; used to discard the warmup.
+     */
+    public void reset() {
+        stats = new ConcurrentHashMap<>();
+    }
+
+    public SortedMap<String, EndpointStats> snapshot() {
+        return new TreeMap<>(stats);
+    }
+}
@@ -0,0 +1,40 @@
+package dk.au.loadtest;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prints the per-endpoint latency table and SLO result.
+ */
+public class Report {
+    private static final String HEADER = "%-28s %9s %9s %9s %9s %9s %9s %9s %9s %8s %9s%n";
+    private static final String ROW = "%-28s %9d %9.1f %9.1f %9.1f %9.1f %9.1f %9.1f %9d %8.4f %9.1f%n";
+
+    private Report() {
+    }
+
+    public static void print(PrintStream out, Map<String, EndpointStats> stats, Duration measured,
+                             List<String> violations) {
+        double seconds = Math.max(measured.toMillis(), 1) / 1000.0;
+        out.printf("%nMeasured window: %.1f s%n", seconds);
+        out.printf(HEADER, "endpoint", "count", "p50 ms", "p90 ms", "p95 ms", "p99 ms", "p99.9 ms", "max ms",
+                "errors", "err rate", "req/s");
+        stats.forEach((endpoint, s) -> out.printf(ROW, endpoint, s.count(),
+                s.percentileMillis(50.0), s.percentileMillis(90.0), s.percentileMillis(95.0), s.percentileMillis(99.0),
+                s.percentileMillis(99.9), s.maxMillis(), s.errors(), s.errorRate(), s.count() / seconds));
+        stats.forEach((endpoint, s) -> {
+            if (s.dropped() > 0) {
+                out.printf("%s: %d arrivals dropped at the concurrency limit%n", endpoint, s.dropped());
+            }
+        });
+
+        if (violations.isEmpty()) {
+            out.println("\nSLO: PASSED");
+        } else {
+            out.println("\nSLO: FAILED");
+            violations.forEach(violation -> out.println("  " + violation));
+        }
+    }
+}
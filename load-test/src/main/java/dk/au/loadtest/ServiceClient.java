@@ -0,0 +1,96 @@
+package dk.au.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.MissingNode;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
+/**
+ * Blocking JSON client used by the scenarios. Every call is timed and recorded under its endpoint
+ * name; a non-2xx response or transport error throws {@link StepFailedException}.
+ */
+public class ServiceClient {
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Metrics metrics;
+    private final Duration requestTimeout;
+
+    public ServiceClient(Metrics metrics, Duration requestTimeout) {
+        this.metrics = metrics;
+        this.requestTimeout = requestTimeout;
+        // The services speak HTTP/1.1 only; skip the h2c upgrade attempt on every new connection
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(requestTimeout)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    public JsonNode get(String endpoint, URI uri) {
+        return send(endpoint, request(uri).GET().build());
+    }
+
+    public JsonNode post(String endpoint, URI uri, Object body) {
+        return send(endpoint, request(uri).POST(json(body)).build());
+    }
+
+    public JsonNode patch(String endpoint, URI uri, Object body) {
+        return send(endpoint, request(uri).method("PATCH", json(body)).build());
+    }
+
+    private HttpRequest.Builder request(URI uri) {
+        return HttpRequest.newBuilder(uri)
+                .timeout(requestTimeout)
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json");
+    }
+
+    private HttpRequest.BodyPublisher json(Object body) {
+        if (body == null) {
+            return HttpRequest.BodyPublishers.noBody();
+        }
+        try {
+            return HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Could not serialize request body", e);
+        }
+    }
+
+    private JsonNode send(String endpoint, HttpRequest request) {
+        EndpointStats stats = metrics.stats(endpoint);
+        long start = System.nanoTime();
+        HttpResponse<byte[]> response;
+        try {
+            response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException e) {
+            stats.record(System.nanoTime() - start, false);
+            throw new StepFailedException(endpoint + " failed: " + e, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            stats.record(System.nanoTime() - start, false);
+            throw new StepFailedException(endpoint + " interrupted", e);
+        }
+
+        boolean success = response.statusCode() / 100 == 2;
+        stats.record(System.nanoTime() - start, success);
+        if (!success) {
+            throw new StepFailedException(endpoint + " returned " + response.statusCode());
+        }
+        if (response.body().length == 0) {
+            return MissingNode.getInstance();
+        }
+        try {
+            return objectMapper.readTree(response.body());
+        } catch (IOException e) {
+            throw new StepFailedException(endpoint + " returned an unreadable body", e);
+        }
+    }
+}
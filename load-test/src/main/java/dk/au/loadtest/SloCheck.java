@@ -0,0 +1,56 @@
+package dk.au.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service level objectives per endpoint. Settings are "&lt;endpoint&gt;.p95-ms",
+ * "&lt;endpoint&gt;.p99-ms" and "&lt;endpoint&gt;.error-rate"; "default.*" applies to every endpoint
+ * without its own value.
+ */
+public class SloCheck {
+    static final String P95_SUFFIX = ".p95-ms";
+    static final String P99_SUFFIX = ".p99-ms";
+    static final String ERROR_RATE_SUFFIX = ".error-rate";
+    private static final String DEFAULT = "default";
+
+    private final Map<String, String> thresholds;
+
+    public SloCheck(Map<String, String> thresholds) {
+        this.thresholds = thresholds;
+    }
+
+    /**
+     * Returns one line per violated objective; empty when the run passed.
+     */
+    public List<String> violations(Map<String, EndpointStats> stats) {
+        List<String> violations = new ArrayList<>();
+        stats.forEach((endpoint, endpointStats) -> {
+            if (endpointStats.count() == 0) {
+                return;
+            }
+            Double maxP95 = threshold(endpoint, P95_SUFFIX);
+            double p95 = endpointStats.percentileMillis(95.0);
+            if (maxP95 != null && p95 > maxP95) {
+                violations.add(String.format("%s p95 %.1f ms exceeds %.1f ms", endpoint, p95, maxP95));
+            }
+            Double maxP99 = threshold(endpoint, P99_SUFFIX);
+            double p99 = endpointStats.percentileMillis(99.0);
+            if (maxP99 != null && p99 > maxP99) {
+                violations.add(String.format("%s p99 %.1f ms exceeds %.1f ms", endpoint, p99, maxP99));
+            }
+            Double maxErrorRate = threshold(endpoint, ERROR_RATE_SUFFIX);
+            double errorRate = endpointStats.errorRate();
+            if (maxErrorRate != null && errorRate > maxErrorRate) {
+                violations.add(String.format("%s error rate %.4f exceeds %.4f", endpoint, errorRate, maxErrorRate));
+            }
+        });
+        return violations;
+    }
+
+    private Double threshold(String endpoint, String suffix) {
+        String value = thresholds.getOrDefault(endpoint + suffix, thresholds.get(DEFAULT + suffix));
+        return value == null || value.isEmpty() ? null : Double.valueOf(value);
+    }
+}
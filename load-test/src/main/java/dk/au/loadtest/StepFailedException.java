@@ -0,0 +1,17 @@
+package dk.au.loadtest;
+
+/**
+ * A scenario step failed, either with a non-2xx response, a transport error or an unexpected body.
+ * The scenario stops at the failed step and counts as an error.
+ */
+public class StepFailedException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public StepFailedException(String message) {
+        super(message);
+    }
+
+    public StepFailedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
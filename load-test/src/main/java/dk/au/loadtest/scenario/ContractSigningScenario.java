@@ -0,0 +1,74 @@
+package dk.au.loadtest.scenario;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import dk.au.loadtest.ServiceClient;
+import dk.au.loadtest.StepFailedException;
+
+import java.net.URI;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The contract-signing flow: create a customer, generate their credentials, log in with the
+ * generated password and register the customer for an exhibition.
+ */
+public class ContractSigningScenario implements Scenario {
+    private static final String[] FIRST_NAMES = {
+            "Anna", "Emma", "Ida", "Clara", "Freja", "William", "Noah", "Oscar", "Lucas", "Carl"};
+    private static final String[] LAST_NAMES = {
+            "Nielsen", "Jensen", "Hansen", "Pedersen", "Andersen", "Larsen", "Madsen", "Olsen"};
+
+    private final ServiceClient client;
+    private final URI customerService;
+    private final URI credentialService;
+    private final URI exhibitionService;
+    private final int exhibitionCount;
+
+    public ContractSigningScenario(ServiceClient client, URI customerService, URI credentialService,
+                                   URI exhibitionService, int exhibitionCount) {
+        this.client = client;
+        this.customerService = customerService;
+        this.credentialService = credentialService;
+        this.exhibitionService = exhibitionService;
+        this.exhibitionCount = exhibitionCount;
+    }
+
+    @Override
+    public String name() {
+        return "contract-signing";
+    }
+
+    @Override
+    public void run() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        JsonNode customer = client.post("customer.create", customerService.resolve("/api/customers"), Map.of(
+                "name", FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " "
+                        + LAST_NAMES[random.nextInt(LAST_NAMES.length)],
+                "birth", LocalDate.of(1950, 1, 1).plusDays(random.nextInt(365 * 55)).toString(),
+                "adress", "Hovedgaden " + (1 + random.nextInt(250)),
+                "phoneNumber", String.valueOf(20_000_000 + random.nextInt(80_000_000))));
+        long customerId = customer.path("id").asLong(-1);
+        if (customerId < 0) {
+            throw new StepFailedException("customer.create returned no customer ID");
+        }
+
+        JsonNode credentials = client.post("credential.generate", credentialService.resolve("/api/credentials/generate"),
+                Map.of("customerId", customerId));
+        String password = credentials.path("password").asText(null);
+        if (password == null) {
+            throw new StepFailedException("credential.generate returned no password");
+        }
+
+        JsonNode valid = client.post("credential.verify", credentialService.resolve("/api/credentials/verify"),
+                Map.of("customerId", customerId, "rawPassword", password));
+        if (!valid.asBoolean(false)) {
+            throw new StepFailedException("credential.verify rejected the generated password");
+        }
+
+        long exhibitionId = 1 + random.nextInt(exhibitionCount);
+        client.patch("exhibition.register", exhibitionService.resolve(
+                "/api/exhibitions/" + exhibitionId + "/customers/" + customerId), null);
+    }
+}
@@ -0,0 +1,34 @@
+package dk.au.loadtest.scenario;
+
+import dk.au.loadtest.ServiceClient;
+
+import java.net.URI;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Keyset-paginated listing of customers from a random position in IDs 1..customerCount, one page per run.
+ */
+public class CustomerListingScenario implements Scenario {
+    static final int PAGE_SIZE = 100;
+
+    private final ServiceClient client;
+    private final URI customerService;
+    private final int customerCount;
+
+    public CustomerListingScenario(ServiceClient client, URI customerService, int customerCount) {
+        this.client = client;
+        this.customerService = customerService;
+        this.customerCount = customerCount;
+    }
+
+    @Override
+    public String name() {
+        return "customer-listing";
+    }
+
+    @Override
+    public void run() {
+        long after = ThreadLocalRandom.current().nextInt(Math.max(1, customerCount - PAGE_SIZE));
+        client.get("customer.list", customerService.resolve("/api/customers?after=" + after + "&limit=" + PAGE_SIZE));
+    }
+}
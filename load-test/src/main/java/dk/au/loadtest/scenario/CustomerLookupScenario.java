@@ -0,0 +1,32 @@
+package dk.au.loadtest.scenario;
+
+import dk.au.loadtest.ServiceClient;
+
+import java.net.URI;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Read traffic against existing customers, e.g. the synthetic-data dataset with IDs 1..customerCount.
+ */
+public class CustomerLookupScenario implements Scenario {
+    private final ServiceClient client;
+    private final URI customerService;
+    private final int customerCount;
+
+    public CustomerLookupScenario(ServiceClient client, URI customerService, int customerCount) {
+        this.client = client;
+        this.customerService = customerService;
+        this.customerCount = customerCount;
+    }
+
+    @Override
+    public String name() {
+        return "customer-lookup";
+    }
+
+    @Override
+    public void run() {
+        long customerId = 1 + ThreadLocalRandom.current().nextInt(customerCount);
+        client.get("customer.get", customerService.resolve("/api/customers/" + customerId));
+    }
+}
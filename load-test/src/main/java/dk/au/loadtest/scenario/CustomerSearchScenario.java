@@ -0,0 +1,40 @@
+package dk.au.loadtest.scenario;
+
+import dk.au.loadtest.ServiceClient;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Front-desk lookups by partial name or phone number, as typed into the search box. The terms
+ * match names and numbers in the synthetic-data dataset; the misspelled ones only match on
+ * trigram similarity.
+ */
+public class CustomerSearchScenario implements Scenario {
+    private static final List<String> QUERIES = List.of(
+            "anna", "mads", "max muster", "jens", "nielsen", "pedersen", "kristen", "thomsen",
+            "musterman", "hanse", "larsn", "2345", "4071", "6123");
+
+    private final ServiceClient client;
+    private final URI customerService;
+
+    public CustomerSearchScenario(ServiceClient client, URI customerService) {
+        this.client = client;
+        this.customerService = customerService;
+    }
+
+    @Override
+    public String name() {
+        return "customer-search";
+    }
+
+    @Override
+    public void run() {
+        String query = QUERIES.get(ThreadLocalRandom.current().nextInt(QUERIES.size()));
+        client.get("customer.search", customerService.resolve(
+                "/api/customers/search?q=" + URLEncoder.encode(query, StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,11 @@
+package dk.au.loadtest.scenario;
+
+/**
+ * One scripted user journey. {@link #run()} is called once per arrival on its own virtual thread
+ * and throws {@link dk.au.loadtest.StepFailedException} at the first failed step.
+ */
+public interface Scenario {
+    String name();
+
+    void run();
+}
@@ -0,0 +1,44 @@
+package dk.au.loadtest.scenario;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Picks a scenario for each arrival in proportion to its weight.
+ */
+public class ScenarioMix {
+    private final List<Scenario> scenarios = new ArrayList<>();
+    private final List<Integer> cumulativeWeights = new ArrayList<>();
+    private int totalWeight;
+
+    public ScenarioMix add(Scenario scenario, int weight) {
+        if (weight < 0) {
+            throw new IllegalArgumentException("Negative weight for scenario " + scenario.name());
+        }
+        if (weight > 0) {
+            totalWeight += weight;
+            scenarios.add(scenario);
+            cumulativeWeights.add(totalWeight);
+        }
+        return this;
+    }
+
+    public boolean isEmpty() {
+        return scenarios.isEmpty();
+    }
+
+    public List<Scenario> scenarios() {
+        return List.copyOf(scenarios);
+    }
+
+    public Scenario next() {
+        int pick = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (int i = 0; i < scenarios.size(); i++) {
+            if (pick < cumulativeWeights.get(i)) {
+                return scenarios.get(i);
+            }
+        }
+        throw new IllegalStateException("Weights out of range");
+    }
+}
@@ -0,0 +1,107 @@
+package dk.au.loadtest.stub;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * In-process stand-ins for customer-service, credential-generation and exhibition-service, all on
+ * one port. They answer the endpoints the scenarios use after a fixed delay, which lets the
+ * harness itself be tested and tuned without the docker-compose stack. Credential endpoints get
+ * their own delay to mimic BCrypt cost.
+ */
+public class StubServices implements AutoCloseable {
+    private static final Pattern CUSTOMER = Pattern.compile("/api/customers/(\\d+)");
+    private static final Pattern REGISTRATION = Pattern.compile("/api/exhibitions/(\\d+)/customers/(\\d+)");
+    private static final Pattern CUSTOMER_ID = Pattern.compile("\"customerId\"\\s*:\\s*(\\d+)");
+
+    private final HttpServer server;
+    private final Duration latency;
+    private final Duration hashingLatency;
+    private final AtomicLong customerIds = new AtomicLong();
+
+    public StubServices(int port, Duration latency, Duration hashingLatency) throws IOException {
+        this.latency = latency;
+        this.hashingLatency = hashingLatency;
+        this.server = HttpServer.create(new InetSocketAddress("localhost", port), 1024);
+        this.server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        this.server.createContext("/", this::handle);
+        this.server.start();
+    }
+
+    public URI baseUri() {
+        return URI.create("http://localhost:" + server.getAddress().getPort());
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String method = exchange.getRequestMethod();
+            String path = exchange.getRequestURI().getPath();
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            Matcher matcher;
+
+            if (method.equals("POST") && path.equals("/api/customers")) {
+                pause(latency);
+                respond(exchange, 200, "{\"id\":" + customerIds.incrementAndGet() + ",\"credentials\":{}}");
+            } else if (method.equals("GET") && path.equals("/api/customers")) {
+                pause(latency);
+                respond(exchange, 200, "[{\"id\":1,\"name\":\"Stub Customer\",\"credentials\":{}}]");
+            } else if (method.equals("GET") && path.equals("/api/customers/search")) {
+                pause(latency);
+                respond(exchange, 200, "[{\"id\":1,\"name\":\"Stub Customer\",\"score\":2.0}]");
+            } else if (method.equals("GET") && (matcher = CUSTOMER.matcher(path)).matches()) {
+                pause(latency);
+                respond(exchange, 200, "{\"id\":" + matcher.group(1) + ",\"name\":\"Stub Customer\",\"credentials\":{}}");
+            } else if (method.equals("POST") && path.equals("/api/credentials/generate")) {
+                pause(hashingLatency);
+                respond(exchange, 200, "{\"username\":\"stub." + customerId(body)
+                        + "\",\"password\":\"stubpass\",\"hashedPassword\":\"$2a$10$stub\"}");
+            } else if (method.equals("POST") && path.equals("/api/credentials/verify")) {
+                pause(hashingLatency);
+                respond(exchange, 200, "true");
+            } else if (method.equals("PATCH") && (matcher = REGISTRATION.matcher(path)).matches()) {
+                pause(latency);
+                respond(exchange, 200, "{\"id\":" + matcher.group(1) + ",\"customerIds\":[" + matcher.group(2) + "]}");
+            } else {
+                respond(exchange, 404, "{}");
+            }
+        }
+    }
+
+    private static String customerId(String body) {
+        Matcher matcher = CUSTOMER_ID.matcher(body);
+        return matcher.find() ? matcher.group(1) : "0";
+    }
+
+    private static void pause(Duration delay) {
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
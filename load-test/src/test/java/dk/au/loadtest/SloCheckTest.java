@@ -0,0 +1,68 @@
+package dk.au.loadtest;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SloCheckTest {
+
+    private static EndpointStats stats(int calls, long latencyMillis, int failures) {
+        EndpointStats stats = new EndpointStats();
+        for (int i = 0; i < calls; i++) {
+            stats.record(TimeUnit.MILLISECONDS.toNanos(latencyMillis), i >= failures);
+        }
+        return stats;
+    }
+
+    @Test
+    void passesWhenWithinThresholds() {
+        SloCheck check = new SloCheck(Map.of("default.p99-ms", "100", "default.error-rate", "0.01"));
+
+        assertThat(check.violations(Map.of("customer.create", stats(1000, 20, 5)))).isEmpty();
+    }
+
+    @Test
+    void reportsSlowAndFailingEndpoints() {
+        SloCheck check = new SloCheck(Map.of("default.p99-ms", "100", "default.error-rate", "0.01"));
+
+        List<String> violations = check.violations(Map.of("credential.generate", stats(100, 250, 10)));
+
+        assertThat(violations).hasSize(2);
+        assertThat(violations.get(0)).startsWith("credential.generate p99");
+        assertThat(violations.get(1)).startsWith("credential.generate error rate");
+    }
+
+    @Test
+    void endpointThresholdOverridesDefault() {
+        SloCheck check = new SloCheck(Map.of("default.p99-ms", "100", "credential.generate.p99-ms", "1000"));
+
+        assertThat(check.violations(Map.of("credential.generate", stats(100, 250, 0)))).isEmpty();
+        assertThat(check.violations(Map.of("customer.create", stats(100, 250, 0)))).hasSize(1);
+    }
+
+    @Test
+    void checksP95OnlyWhereConfigured() {
+        SloCheck check = new SloCheck(Map.of("default.p99-ms", "1000", "customer.search.p95-ms", "5"));
+
+        List<String> violations = check.violations(Map.of(
+                "customer.search", stats(100, 20, 0),
+                "customer.get", stats(100, 20, 0)));
+
+        assertThat(violations).containsExactly("customer.search p95 20.0 ms exceeds 5.0 ms");
+    }
+
+    @Test
+    void droppedArrivalsCountAsErrors() {
+        SloCheck check = new SloCheck(Map.of("default.error-rate", "0.01"));
+        EndpointStats stats = stats(98, 10, 0);
+        stats.recordDropped();
+        stats.recordDropped();
+
+        assertThat(stats.errorRate()).isEqualTo(0.02);
+        assertThat(check.violations(Map.of("scenario.contract-signing", stats))).hasSize(1);
+    }
+}